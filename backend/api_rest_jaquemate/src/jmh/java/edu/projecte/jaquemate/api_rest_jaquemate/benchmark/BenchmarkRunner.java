@@ -0,0 +1,32 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de los benchmarks. Siempre añade el profiler de GC para
+ * informar de la tasa de asignación (gc.alloc.rate.norm = bytes por operación).
+ *
+ * Uso: mvn -Pbenchmarks test-compile exec:exec -Djmh.args="Csv"
+ */
+public class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions lineaComandos = new CommandLineOptions(args);
+        OptionsBuilder opciones = new OptionsBuilder();
+        opciones.parent(lineaComandos);
+        if (lineaComandos.getIncludes().isEmpty()) {
+            opciones.include(BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+        }
+        Options configuracion = opciones.addProfiler(GCProfiler.class).build();
+        new Runner(configuracion).run();
+    }
+}
@@ -0,0 +1,48 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.helper.CsvHelper;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaCsvImport;
+
+/**
+ * Escapado de campos en la exportación y lectura de líneas en la importación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvBenchmark {
+
+    // Un FEN no lleva comas ni comillas: es el caso habitual de la exportación
+    private final String fen = Datos.FEN_INICIAL;
+    private final String campoConComillas = "Partida \"rápida\", ronda 3";
+    private final String lineaImportacion = Datos.FEN_INICIAL + ",e2e4";
+
+    @Benchmark
+    public String escapeCsvSinComillas() {
+        return CsvHelper.escapeCsv(fen);
+    }
+
+    @Benchmark
+    public String escapeCsvConComillas() {
+        return CsvHelper.escapeCsv(campoConComillas);
+    }
+
+    @Benchmark
+    public JugadaCsvImport parsearLineaImportacion() {
+        return CsvHelper.parsearLineaImportacion(lineaImportacion);
+    }
+}
@@ -0,0 +1,46 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Jugadas;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Usuario;
+
+/**
+ * Datos sintéticos compartidos por los benchmarks, parecidos a los que devuelve
+ * una página real del listado.
+ */
+final class Datos {
+
+    static final String FEN_INICIAL = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String[] MOVIMIENTOS = { "e2e4", "d2d4", "g1f3", "c2c4", "e7e8q" };
+
+    private Datos() {
+    }
+
+    static List<Jugadas> jugadas(int cantidad) {
+        Usuario usuario = Usuario.builder()
+                .id(1L)
+                .usuario("benchmark")
+                .email("benchmark@jaquemate.dev")
+                .password("x")
+                .build();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<Jugadas> jugadas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            String movimiento = MOVIMIENTOS[i % MOVIMIENTOS.length];
+            jugadas.add(Jugadas.builder()
+                    .id((long) i + 1)
+                    .usuario(usuario)
+                    .fen(FEN_INICIAL)
+                    .moveUciFrom(movimiento.substring(0, 2))
+                    .moveUciTo(movimiento.substring(2))
+                    .moveSan("e4")
+                    .createdAt(base.plusSeconds(i))
+                    .build());
+        }
+        return jugadas;
+    }
+}
@@ -0,0 +1,76 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.GeneradorMovimientos;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.JugadaDerivada;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.Tablero;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.ValidadorJugadas;
+
+/**
+ * Coste de validar y derivar (SAN y FEN resultante) una jugada en la
+ * importación, parseo del FEN incluido, y perft como medida de nodos por
+ * segundo del generador.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeneradorMovimientosBenchmark {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String FEN_DOS_CABALLOS = "7k/8/8/8/8/8/8/N1N4K w - - 0 1";
+    private static final String FEN_TRAS_E4 = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+
+    private final Tablero kiwipete = Tablero.desdeFen(KIWIPETE);
+
+    @Benchmark
+    public ValidadorJugadas.Resultado validarDesdePosicion() {
+        return ValidadorJugadas.validar(Datos.FEN_INICIAL, "e2", "e4");
+    }
+
+    @Benchmark
+    public ValidadorJugadas.Resultado validarHaciaPosicion() {
+        return ValidadorJugadas.validar(FEN_TRAS_E4, "e2", "e4");
+    }
+
+    @Benchmark
+    public ValidadorJugadas.Resultado validarIlegal() {
+        return ValidadorJugadas.validar(KIWIPETE, "e1", "e3");
+    }
+
+    // Los dos caballos alcanzan b3: obliga a desambiguar (Nab3)
+    @Benchmark
+    public JugadaDerivada derivarConDesambiguacion() {
+        return ValidadorJugadas.derivar(FEN_DOS_CABALLOS, "a1", "b3");
+    }
+
+    @Benchmark
+    public JugadaDerivada derivar() {
+        return ValidadorJugadas.derivar(Datos.FEN_INICIAL, "g1", "f3");
+    }
+
+    @Benchmark
+    public Tablero parsearFen() {
+        return Tablero.desdeFen(KIWIPETE);
+    }
+
+    // 97.862 nodos por llamada: dividir para obtener el tiempo por nodo
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long perftKiwipete() {
+        return GeneradorMovimientos.perft(kiwipete, 3);
+    }
+}
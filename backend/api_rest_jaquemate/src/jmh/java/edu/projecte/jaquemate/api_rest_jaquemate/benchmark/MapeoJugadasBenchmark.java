@@ -0,0 +1,56 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Jugadas;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaList;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.mapper.JugadaMapper;
+
+/**
+ * Coste de convertir una página de entidades al DTO del listado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeoJugadasBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int tamanoPagina;
+
+    private final JugadaMapper mapper = JugadaMapper.INSTANCE;
+
+    private List<Jugadas> jugadas;
+    private Jugadas jugada;
+
+    @Setup
+    public void preparar() {
+        jugadas = Datos.jugadas(tamanoPagina);
+        jugada = jugadas.get(0);
+    }
+
+    @Benchmark
+    public List<JugadaList> jugadasToJugadaList() {
+        return mapper.jugadasToJugadaList(jugadas);
+    }
+
+    @Benchmark
+    public String combineUci() {
+        return mapper.combineUci(jugada);
+    }
+}
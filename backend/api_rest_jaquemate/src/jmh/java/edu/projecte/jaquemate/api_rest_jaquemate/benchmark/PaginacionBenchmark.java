@@ -0,0 +1,42 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.helper.PaginationHelper;
+
+/**
+ * Construcción del Pageable a partir de los parámetros de ordenación de la petición.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaginacionBenchmark {
+
+    // Valor por defecto de los controladores: ?sort=createdAt,desc llega partido en dos
+    private final String[] ordenSimple = { "createdAt", "desc" };
+    private final String[] ordenMultiple = { "createdAt,desc", "id,desc" };
+
+    @Benchmark
+    public Pageable createPageableSimple() {
+        return PaginationHelper.createPageable(0, 20, ordenSimple);
+    }
+
+    @Benchmark
+    public Pageable createPageableMultiple() {
+        return PaginationHelper.createPageable(0, 20, ordenMultiple);
+    }
+}
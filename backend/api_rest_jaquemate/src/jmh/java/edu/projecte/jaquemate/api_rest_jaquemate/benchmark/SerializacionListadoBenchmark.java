@@ -0,0 +1,94 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.config.FormatosBinariosConfig;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaList;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ListadoRespuesta;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.mapper.JugadaMapper;
+
+/**
+ * Serialización de una página del listado en cada formato negociable (JSON,
+ * CBOR, Smile), configurados como los ObjectMapper de Spring Boot. Mide la CPU
+ * al escribir, con y sin gzip, y al leer la respuesta en el cliente; los bytes
+ * de cada combinación se imprimen al preparar el estado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionListadoBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int tamanoPagina;
+
+    @Param({ "json", "cbor", "smile" })
+    private String formato;
+
+    private ObjectMapper objectMapper;
+    private ListadoRespuesta<JugadaList> listado;
+    private byte[] serializado;
+
+    @Setup
+    public void preparar() throws IOException {
+        JsonFactory factory = switch (formato) {
+            case "cbor" -> FormatosBinariosConfig.crearCborFactory();
+            case "smile" -> FormatosBinariosConfig.crearSmileFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        List<JugadaList> content = JugadaMapper.INSTANCE.jugadasToJugadaList(Datos.jugadas(tamanoPagina));
+        listado = new ListadoRespuesta<>(0, tamanoPagina, tamanoPagina * 10L, 10, content);
+
+        serializado = objectMapper.writeValueAsBytes(listado);
+        System.out.printf("%n%s, %d filas: %d bytes, %d con gzip%n",
+                formato, tamanoPagina, serializado.length, serializarListadoGzip().length);
+    }
+
+    @Benchmark
+    public byte[] serializarListado() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(listado);
+    }
+
+    // Lo que cuesta la respuesta con server.compression activado
+    @Benchmark
+    public byte[] serializarListadoGzip() throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            objectMapper.writeValue(gzip, listado);
+        }
+        return salida.toByteArray();
+    }
+
+    @Benchmark
+    public JsonNode leerListado() throws IOException {
+        return objectMapper.readTree(serializado);
+    }
+}
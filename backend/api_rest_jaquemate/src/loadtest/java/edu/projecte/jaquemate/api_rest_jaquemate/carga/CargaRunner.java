@@ -0,0 +1,212 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.ApiRestJaquemateApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Prueba de carga de extremo a extremo: arranca un PostgreSQL embebido (o usa
+ * carga.db.url), aplica database/init, levanta la aplicación en un puerto libre,
+ * siembra usuarios y jugadas y lanza la mezcla de peticiones con la concurrencia
+ * indicada. Al terminar imprime por endpoint peticiones/s y percentiles de
+ * latencia, y deja los histogramas completos (.hgrm) en carga.salida.
+ *
+ * Uso: mvn -Pcarga test-compile exec:exec -Dcarga.jvm="-Xmx2g -Dcarga.jugadas=500000 -Dcarga.concurrencia=32"
+ */
+public class CargaRunner {
+
+    private static final Path SCRIPTS_INIT = Path.of("../../database/init");
+    // Latencias registradas en microsegundos, hasta 10 minutos con 3 cifras significativas
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(10);
+
+    private CargaRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracionCarga configuracion = ConfiguracionCarga.desdePropiedades();
+        EmbeddedPostgres postgres = null;
+        String url = configuracion.getUrlBaseDatos();
+        String usuarioBd = configuracion.getUsuarioBaseDatos();
+        String passwordBd = configuracion.getPasswordBaseDatos();
+        if (url == null) {
+            postgres = EmbeddedPostgres.builder().start();
+            url = postgres.getJdbcUrl("postgres", "postgres");
+            usuarioBd = "postgres";
+            passwordBd = "postgres";
+        }
+
+        try {
+            aplicarScripts(new DriverManagerDataSource(url, usuarioBd, passwordBd));
+            try (ConfigurableApplicationContext contexto = arrancarAplicacion(url, usuarioBd, passwordBd, Map.of())) {
+                ejecutar(configuracion, contexto);
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    static void aplicarScripts(DataSource dataSource) throws IOException {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+        // Cada fichero se envía entero, como hace psql en docker-entrypoint-initdb.d:
+        // los cuerpos PL/pgSQL entre $$ no se pueden trocear por ';'
+        populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);
+        try (var scripts = Files.list(SCRIPTS_INIT)) {
+            scripts.filter(script -> script.toString().endsWith(".sql"))
+                    .sorted()
+                    .forEach(script -> populator.addScript(new FileSystemResource(script)));
+        }
+        populator.execute(dataSource);
+    }
+
+    static ConfigurableApplicationContext arrancarAplicacion(String url, String usuario, String password,
+            Map<String, Object> adicionales) {
+        Map<String, Object> propiedades = new HashMap<>(adicionales);
+        propiedades.put("spring.devtools.restart.enabled", "false");
+        propiedades.put("server.port", "0");
+        propiedades.put("management.server.port", "0");
+        propiedades.put("spring.datasource.url", url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true");
+        propiedades.put("spring.datasource.username", usuario);
+        propiedades.put("spring.datasource.password", password);
+        // Como argumentos de línea de comandos: las propiedades por defecto pierden frente a application.properties
+        String[] argumentos = propiedades.entrySet().stream()
+                .map(propiedad -> "--" + propiedad.getKey() + "=" + propiedad.getValue())
+                .toArray(String[]::new);
+        return new SpringApplication(ApiRestJaquemateApplication.class).run(argumentos);
+    }
+
+    private static void ejecutar(ConfiguracionCarga configuracion, ConfigurableApplicationContext contexto)
+            throws Exception {
+        PatronesJugadas patrones = PatronesJugadas.leer(configuracion.getPatrones());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(contexto.getBean(DataSource.class));
+
+        long inicioSembrado = System.nanoTime();
+        List<Long> usuarioIds = new SembradoDatos(jdbcTemplate, patrones)
+                .sembrar(configuracion.getUsuarios(), configuracion.getJugadas());
+        System.out.printf("Sembrados %d usuarios y %d jugadas en %d ms%n",
+                usuarioIds.size(), configuracion.getJugadas(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioSembrado));
+
+        int puerto = Integer.parseInt(contexto.getEnvironment().getProperty("local.server.port"));
+        ClienteCarga cliente = new ClienteCarga(puerto, usuarioIds, patrones, configuracion.getFilasImportacion());
+
+        Map<Operacion, Recorder> recorders = new EnumMap<>(Operacion.class);
+        Map<Operacion, AtomicLong> errores = new EnumMap<>(Operacion.class);
+        for (Operacion operacion : configuracion.getMezcla().keySet()) {
+            recorders.put(operacion, new Recorder(LATENCIA_MAXIMA_US, 3));
+            errores.put(operacion, new AtomicLong());
+        }
+        Operacion[] ruleta = construirRuleta(configuracion.getMezcla());
+
+        long finCalentamiento = System.nanoTime() + configuracion.getCalentamiento().toNanos();
+        long fin = finCalentamiento + configuracion.getDuracion().toNanos();
+
+        ExecutorService trabajadores = Executors.newFixedThreadPool(configuracion.getConcurrencia());
+        for (int hilo = 0; hilo < configuracion.getConcurrencia(); hilo++) {
+            SplittableRandom random = new SplittableRandom(hilo);
+            trabajadores.submit(() -> {
+                while (System.nanoTime() < fin) {
+                    Operacion operacion = ruleta[random.nextInt(ruleta.length)];
+                    long inicio = System.nanoTime();
+                    boolean error;
+                    try {
+                        error = cliente.ejecutar(operacion, random) >= 400;
+                    } catch (IOException e) {
+                        error = true;
+                    }
+                    long terminado = System.nanoTime();
+                    if (inicio >= finCalentamiento) {
+                        recorders.get(operacion).recordValue(
+                                Math.min(TimeUnit.NANOSECONDS.toMicros(terminado - inicio), LATENCIA_MAXIMA_US));
+                        if (error) {
+                            errores.get(operacion).incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        trabajadores.shutdown();
+        trabajadores.awaitTermination(
+                configuracion.getCalentamiento().plus(configuracion.getDuracion()).toSeconds() + 300,
+                TimeUnit.SECONDS);
+
+        informar(configuracion, recorders, errores);
+    }
+
+    /**
+     * Cada operación aparece tantas veces como su peso, de modo que un índice
+     * aleatorio reproduce la mezcla pedida.
+     */
+    private static Operacion[] construirRuleta(Map<Operacion, Integer> mezcla) {
+        List<Operacion> ruleta = new ArrayList<>();
+        mezcla.forEach((operacion, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                ruleta.add(operacion);
+            }
+        });
+        return ruleta.toArray(Operacion[]::new);
+    }
+
+    private static void informar(ConfiguracionCarga configuracion, Map<Operacion, Recorder> recorders,
+            Map<Operacion, AtomicLong> errores) throws IOException {
+        Files.createDirectories(configuracion.getSalida());
+        double segundos = configuracion.getDuracion().toMillis() / 1000.0;
+        System.out.printf("%nConcurrencia %d, medición %.0f s (calentamiento %d s)%n",
+                configuracion.getConcurrencia(), segundos, configuracion.getCalentamiento().toSeconds());
+        System.out.printf("%-42s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "peticiones", "errores", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        for (Map.Entry<Operacion, Recorder> entrada : recorders.entrySet()) {
+            Operacion operacion = entrada.getKey();
+            Histogram histograma = entrada.getValue().getIntervalHistogram();
+            System.out.printf("%-42s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operacion.getEndpoint(),
+                    histograma.getTotalCount(),
+                    errores.get(operacion).get(),
+                    histograma.getTotalCount() / segundos,
+                    ms(histograma.getValueAtPercentile(50)),
+                    ms(histograma.getValueAtPercentile(90)),
+                    ms(histograma.getValueAtPercentile(99)),
+                    ms(histograma.getValueAtPercentile(99.9)),
+                    ms(histograma.getMaxValue()));
+
+            Path fichero = configuracion.getSalida().resolve(operacion.getNombre() + ".hgrm");
+            try (PrintStream salida = new PrintStream(Files.newOutputStream(fichero))) {
+                histograma.outputPercentileDistribution(salida, 1000.0);
+            }
+        }
+        System.out.println("\nHistogramas completos en " + configuracion.getSalida().toAbsolutePath());
+    }
+
+    private static double ms(long microsegundos) {
+        return microsegundos / 1000.0;
+    }
+}
@@ -0,0 +1,97 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.carga;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Traduce cada {@link Operacion} a una petición HTTP contra la aplicación arrancada.
+ * Las respuestas se consumen enteras para que la latencia medida incluya la
+ * serialización completa (en especial en la exportación).
+ */
+public class ClienteCarga {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String base;
+    private final List<Long> usuarioIds;
+    private final PatronesJugadas patrones;
+    private final int filasImportacion;
+
+    public ClienteCarga(int puerto, List<Long> usuarioIds, PatronesJugadas patrones, int filasImportacion) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.base = "http://localhost:" + puerto + "/api/v1/jugadas";
+        this.usuarioIds = usuarioIds;
+        this.patrones = patrones;
+        this.filasImportacion = filasImportacion;
+    }
+
+    /**
+     * @return código HTTP de la respuesta
+     */
+    public int ejecutar(Operacion operacion, SplittableRandom random) throws IOException, InterruptedException {
+        int usuario = random.nextInt(usuarioIds.size());
+        Long usuarioId = usuarioIds.get(usuario);
+        HttpRequest peticion = switch (operacion) {
+            case LISTADO -> get(base + "?page=" + random.nextInt(5) + "&size=20");
+            case USUARIO -> get(base + "/usuario/" + usuarioId + "?page=0&size=20");
+            case JUGADOR -> get(base + "/jugador/" + SembradoDatos.nombreUsuario(usuario) + "?page=0&size=20");
+            case CREAR -> post(base, crearJugada(usuarioId, random));
+            case IMPORTAR -> post(base + "/importar/confirmar?usuarioId=" + usuarioId, crearImportacion(random));
+            case EXPORTAR -> get(base + "/exportar/csv?usuarioId=" + usuarioId);
+        };
+        HttpResponse<InputStream> respuesta = httpClient.send(peticion, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream cuerpo = respuesta.body()) {
+            cuerpo.transferTo(OutputStream.nullOutputStream());
+        }
+        return respuesta.statusCode();
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String url, Object cuerpo) throws JsonProcessingException {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(cuerpo)))
+                .build();
+    }
+
+    private Map<String, Object> crearJugada(Long usuarioId, SplittableRandom random) {
+        int patron = random.nextInt(patrones.size());
+        String uci = patrones.uci(patron);
+        return Map.of(
+                "usuarioId", usuarioId,
+                "moveUciFrom", uci.substring(0, 2),
+                "moveUciTo", uci.substring(2, 4),
+                "fen", patrones.fen(patron));
+    }
+
+    private List<Map<String, String>> crearImportacion(SplittableRandom random) {
+        List<Map<String, String>> filas = new ArrayList<>(filasImportacion);
+        for (int i = 0; i < filasImportacion; i++) {
+            int patron = random.nextInt(patrones.size());
+            filas.add(Map.of("fen", patrones.fen(patron), "jugadas", patrones.uci(patron)));
+        }
+        return filas;
+    }
+}
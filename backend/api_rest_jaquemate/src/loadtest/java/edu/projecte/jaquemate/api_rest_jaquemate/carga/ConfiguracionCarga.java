@@ -0,0 +1,73 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.carga;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades de sistema
+ * (-Dcarga.usuarios=..., -Dcarga.concurrencia=..., etc.).
+ */
+@Getter
+public class ConfiguracionCarga {
+
+    private static final String MEZCLA_POR_DEFECTO =
+            "listado:45,usuario:20,jugador:10,crear:20,importar:3,exportar:2";
+
+    private final int usuarios;
+    private final int jugadas;
+    private final int concurrencia;
+    private final Duration calentamiento;
+    private final Duration duracion;
+    private final int filasImportacion;
+    private final Map<Operacion, Integer> mezcla;
+    private final Path patrones;
+    private final Path salida;
+    // Si se indica, se usa esa BD en lugar de arrancar un PostgreSQL embebido
+    private final String urlBaseDatos;
+    private final String usuarioBaseDatos;
+    private final String passwordBaseDatos;
+
+    private ConfiguracionCarga() {
+        usuarios = Integer.getInteger("carga.usuarios", 100);
+        jugadas = Integer.getInteger("carga.jugadas", 100_000);
+        concurrencia = Integer.getInteger("carga.concurrencia", 16);
+        calentamiento = Duration.parse(System.getProperty("carga.calentamiento", "PT15S"));
+        duracion = Duration.parse(System.getProperty("carga.duracion", "PT60S"));
+        filasImportacion = Integer.getInteger("carga.filas-importacion", 200);
+        mezcla = parsearMezcla(System.getProperty("carga.mezcla", MEZCLA_POR_DEFECTO));
+        patrones = Path.of(System.getProperty("carga.patrones", "../../jugadas_prueba.csv"));
+        salida = Path.of(System.getProperty("carga.salida", "target/carga"));
+        urlBaseDatos = System.getProperty("carga.db.url");
+        usuarioBaseDatos = System.getProperty("carga.db.usuario", "chess_user");
+        passwordBaseDatos = System.getProperty("carga.db.password", "chess_password");
+    }
+
+    public static ConfiguracionCarga desdePropiedades() {
+        return new ConfiguracionCarga();
+    }
+
+    /**
+     * @param valor lista "operacion:peso" separada por comas; las operaciones ausentes no se ejecutan
+     */
+    private static Map<Operacion, Integer> parsearMezcla(String valor) {
+        Map<Operacion, Integer> resultado = new LinkedHashMap<>();
+        for (String entrada : valor.split(",")) {
+            String[] partes = entrada.trim().split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Entrada de carga.mezcla no válida: " + entrada);
+            }
+            int peso = Integer.parseInt(partes[1].trim());
+            if (peso > 0) {
+                resultado.put(Operacion.desdeNombre(partes[0].trim()), peso);
+            }
+        }
+        if (resultado.isEmpty()) {
+            throw new IllegalArgumentException("carga.mezcla no contiene ninguna operación");
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,142 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.carga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Jugadas;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Usuario;
+import edu.projecte.jaquemate.api_rest_jaquemate.repository.JugadasRepository;
+import edu.projecte.jaquemate.api_rest_jaquemate.repository.UsuarioRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Rendimiento de inserción de jugadas antes y después de pasar de IDENTITY a
+ * secuencia con pooled-lo. Levanta la aplicación dos veces contra el mismo
+ * PostgreSQL embebido y guarda por JugadasRepository, así que mide lo que
+ * Hibernate envía de verdad con cada estrategia:
+ * <ul>
+ * <li>IDENTITY: el mapeo de carga/jugadas-identity.orm.xml se superpone a las
+ * anotaciones de Jugadas.</li>
+ * <li>Secuencia: el mapeo de la entidad tal cual.</li>
+ * </ul>
+ * Mide una jugada por transacción (save, alta desde el tablero) y bloques de
+ * insercion.lote jugadas por transacción (saveAll, importación).
+ *
+ * Uso: mvn -Pcarga test-compile exec:exec -Dcarga.main=edu.projecte.jaquemate.api_rest_jaquemate.carga.InsercionRunner
+ * -Dcarga.jvm="-Dinsercion.filas=50000 -Dinsercion.lote=1000"
+ */
+public class InsercionRunner {
+
+    private static final String MAPEO_IDENTITY = "carga/jugadas-identity.orm.xml";
+    private static final String FEN = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+
+    private InsercionRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int filas = Integer.getInteger("insercion.filas", 20_000);
+        int lote = Integer.getInteger("insercion.lote", 1_000);
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            String url = postgres.getJdbcUrl("postgres", "postgres");
+            CargaRunner.aplicarScripts(new DriverManagerDataSource(url, "postgres", "postgres"));
+
+            double[] identity = medir(url, "identity", true, filas, lote);
+            double[] secuencia = medir(url, "secuencia", false, filas, lote);
+
+            System.out.printf("%-28s %12s %12s%n", "", "IDENTITY", "pooled-lo");
+            System.out.printf("%-28s %12.0f %12.0f%n", "1 jugada/transacción (f/s)", identity[0], secuencia[0]);
+            System.out.printf("%-28s %12.0f %12.0f%n", lote + " jugadas/transacción (f/s)", identity[1], secuencia[1]);
+        }
+    }
+
+    /**
+     * @return filas por segundo con una jugada por transacción y por bloques
+     */
+    private static double[] medir(String url, String nombre, boolean identity, int filas, int lote) {
+        Map<String, Object> adicionales = identity
+                ? Map.of("spring.jpa.mapping-resources", MAPEO_IDENTITY)
+                : Map.of();
+        try (ConfigurableApplicationContext contexto = CargaRunner.arrancarAplicacion(url, "postgres", "postgres",
+                adicionales)) {
+            comprobarEstrategia(contexto, identity);
+            JugadasRepository jugadasRepository = contexto.getBean(JugadasRepository.class);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(
+                    contexto.getBean(PlatformTransactionManager.class));
+            Usuario usuario = contexto.getBean(UsuarioRepository.class).save(Usuario.builder()
+                    .usuario("insercion_" + nombre)
+                    .email("insercion_" + nombre + "@carga.jaquemate.dev")
+                    .password("x")
+                    .build());
+
+            // Calentamiento del driver, de Hibernate y del servidor
+            for (int i = 0; i < 2; i++) {
+                unaPorTransaccion(jugadasRepository, usuario, filas / 10);
+                porBloques(jugadasRepository, transactionTemplate, usuario, filas / 10, lote);
+            }
+            return new double[] {
+                    unaPorTransaccion(jugadasRepository, usuario, filas),
+                    porBloques(jugadasRepository, transactionTemplate, usuario, filas, lote) };
+        }
+    }
+
+    // Si el orm.xml no se aplicara, las dos columnas medirían la secuencia
+    private static void comprobarEstrategia(ConfigurableApplicationContext contexto, boolean identity) {
+        boolean generadoAlInsertar = contexto.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(Jugadas.class)
+                .getGenerator()
+                .generatedOnExecution();
+        if (generadoAlInsertar != identity) {
+            throw new IllegalStateException("Jugadas no usa la estrategia de id esperada (IDENTITY=" + identity + ")");
+        }
+    }
+
+    /**
+     * @return filas por segundo
+     */
+    private static double unaPorTransaccion(JugadasRepository jugadasRepository, Usuario usuario, int filas) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < filas; i++) {
+            jugadasRepository.save(nuevaJugada(usuario));
+        }
+        return filasPorSegundo(filas, inicio);
+    }
+
+    private static double porBloques(JugadasRepository jugadasRepository, TransactionTemplate transactionTemplate,
+            Usuario usuario, int filas, int lote) {
+        long inicio = System.nanoTime();
+        for (int hechas = 0; hechas < filas; hechas += lote) {
+            List<Jugadas> bloque = new ArrayList<>(lote);
+            for (int i = 0; i < Math.min(lote, filas - hechas); i++) {
+                bloque.add(nuevaJugada(usuario));
+            }
+            transactionTemplate.executeWithoutResult(status -> jugadasRepository.saveAll(bloque));
+        }
+        return filasPorSegundo(filas, inicio);
+    }
+
+    private static Jugadas nuevaJugada(Usuario usuario) {
+        return Jugadas.builder()
+                .usuario(usuario)
+                .moveSan("e4")
+                .moveUciFrom("e2")
+                .moveUciTo("e4")
+                .fen(FEN)
+                .build();
+    }
+
+    private static double filasPorSegundo(int filas, long inicio) {
+        return filas / ((System.nanoTime() - inicio) / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,34 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.carga;
+
+import java.util.Locale;
+
+/**
+ * Peticiones que forman la mezcla de carga. El nombre es el que se usa en
+ * carga.mezcla y en el informe.
+ */
+public enum Operacion {
+    LISTADO("GET /api/v1/jugadas"),
+    USUARIO("GET /api/v1/jugadas/usuario/{id}"),
+    JUGADOR("GET /api/v1/jugadas/jugador/{nombre}"),
+    CREAR("POST /api/v1/jugadas"),
+    IMPORTAR("POST /api/v1/jugadas/importar/confirmar"),
+    EXPORTAR("GET /api/v1/jugadas/exportar/csv");
+
+    private final String endpoint;
+
+    Operacion(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public String getNombre() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Operacion desdeNombre(String nombre) {
+        return valueOf(nombre.toUpperCase(Locale.ROOT));
+    }
+}
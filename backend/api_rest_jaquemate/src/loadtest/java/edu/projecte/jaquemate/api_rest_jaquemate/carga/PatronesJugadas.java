@@ -0,0 +1,73 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.carga;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pares (fen, uci) leídos de un CSV con el formato de jugadas_prueba.csv
+ * (player,fen,uci con el FEN entre comillas). Sirven de plantilla para generar
+ * las jugadas sintéticas del sembrado y de las peticiones de escritura.
+ */
+public class PatronesJugadas {
+
+    private final List<String[]> patrones;
+
+    private PatronesJugadas(List<String[]> patrones) {
+        this.patrones = patrones;
+    }
+
+    public static PatronesJugadas leer(Path csv) {
+        List<String[]> patrones = new ArrayList<>();
+        try {
+            List<String> lineas = Files.readAllLines(csv, StandardCharsets.UTF_8);
+            for (String linea : lineas.subList(Math.min(1, lineas.size()), lineas.size())) {
+                List<String> campos = separarCampos(linea);
+                if (campos.size() >= 3 && campos.get(2).length() >= 4) {
+                    patrones.add(new String[] { campos.get(1), campos.get(2) });
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el fichero de patrones " + csv, e);
+        }
+        if (patrones.isEmpty()) {
+            throw new IllegalStateException("El fichero de patrones " + csv + " no contiene jugadas");
+        }
+        return new PatronesJugadas(patrones);
+    }
+
+    public int size() {
+        return patrones.size();
+    }
+
+    public String fen(int indice) {
+        return patrones.get(Math.floorMod(indice, patrones.size()))[0];
+    }
+
+    public String uci(int indice) {
+        return patrones.get(Math.floorMod(indice, patrones.size()))[1];
+    }
+
+    private static List<String> separarCampos(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '"') {
+                entreComillas = !entreComillas;
+            } else if (c == ',' && !entreComillas) {
+                campos.add(actual.toString().trim());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString().trim());
+        return campos;
+    }
+}
@@ -0,0 +1,97 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.carga;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.Zobrist;
+
+/**
+ * Carga N usuarios y M jugadas directamente por JDBC, repartiendo las jugadas
+ * entre los usuarios y a lo largo del último año para que los índices por
+ * (usuario_id, created_at, id) tengan una distribución realista.
+ */
+public class SembradoDatos {
+
+    public static final String PREFIJO_USUARIO = "carga_";
+    public static final String PASSWORD = "carga123";
+
+    private static final int TAMANO_LOTE = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PatronesJugadas patrones;
+
+    public SembradoDatos(JdbcTemplate jdbcTemplate, PatronesJugadas patrones) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.patrones = patrones;
+    }
+
+    /**
+     * @return ids de los usuarios creados, en orden
+     */
+    public List<Long> sembrar(int usuarios, int jugadas) {
+        List<Object[]> filasUsuarios = new ArrayList<>(usuarios);
+        for (int i = 0; i < usuarios; i++) {
+            String nombre = nombreUsuario(i);
+            filasUsuarios.add(new Object[] { nombre, nombre + "@carga.jaquemate.dev", PASSWORD });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO usuarios (usuario, email, password) VALUES (?, ?, ?)", filasUsuarios);
+        List<Long> usuarioIds = jdbcTemplate.queryForList(
+                "SELECT id FROM usuarios WHERE usuario LIKE ? ORDER BY usuario", Long.class, PREFIJO_USUARIO + "%");
+
+        Long[] hashes = new Long[patrones.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = Zobrist.hashFenOrNull(patrones.fen(i));
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime ahora = LocalDateTime.now();
+        // Una partición por mes del año sembrado, como en una base con historial
+        for (int mes = 0; mes <= 12; mes++) {
+            jdbcTemplate.queryForObject("SELECT crear_particion_jugadas(?)", String.class,
+                    Date.valueOf(ahora.toLocalDate().minusMonths(mes).withDayOfMonth(1)));
+        }
+        List<Object[]> lote = new ArrayList<>(TAMANO_LOTE);
+        for (int i = 0; i < jugadas; i++) {
+            int patron = random.nextInt(patrones.size());
+            String uci = patrones.uci(patron);
+            lote.add(new Object[] {
+                    usuarioIds.get(random.nextInt(usuarioIds.size())),
+                    uci.substring(0, 2),
+                    uci.substring(2, 4),
+                    patrones.fen(patron),
+                    hashes[patron],
+                    // El FEN de las plantillas es el anterior a la jugada, como en las importaciones CSV
+                    hashes[patron],
+                    Timestamp.valueOf(ahora.minusSeconds(random.nextLong(365L * 24 * 3600)))
+            });
+            if (lote.size() == TAMANO_LOTE || i == jugadas - 1) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO jugadas (usuario_id, move_uci_from, move_uci_to, fen, posicion_hash,"
+                                + " posicion_previa_hash, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                        lote);
+                lote.clear();
+            }
+        }
+
+        // Mismo agregado que database/init/05_explorador.sql, recalculado tras el sembrado
+        jdbcTemplate.update("TRUNCATE explorador_movimientos");
+        jdbcTemplate.update("""
+                INSERT INTO explorador_movimientos (posicion_hash, move_uci_from, move_uci_to, veces)
+                SELECT posicion_previa_hash, move_uci_from, move_uci_to, COUNT(*)
+                FROM jugadas
+                WHERE posicion_previa_hash IS NOT NULL
+                GROUP BY posicion_previa_hash, move_uci_from, move_uci_to""");
+        jdbcTemplate.execute("ANALYZE");
+        return usuarioIds;
+    }
+
+    public static String nombreUsuario(int indice) {
+        return PREFIJO_USUARIO + String.format("%05d", indice);
+    }
+}
@@ -2,8 +2,10 @@ package edu.projecte.jaquemate.api_rest_jaquemate;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ApiRestJaquemateApplication {
 
 	public static void main(String[] args) {
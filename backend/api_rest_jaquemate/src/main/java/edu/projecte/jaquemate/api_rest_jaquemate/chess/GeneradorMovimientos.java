@@ -0,0 +1,401 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+/**
+ * Generador de movimientos legales sobre {@link Tablero}. Genera los
+ * pseudo-legales con tablas de ataque precalculadas (rayos con el primer
+ * bloqueador para las piezas de largo alcance) y descarta los que dejan al
+ * propio rey en jaque haciendo y deshaciendo cada uno.
+ */
+public final class GeneradorMovimientos {
+
+    /** Suficiente para cualquier posición legal (el máximo conocido es 218). */
+    public static final int MAXIMO_MOVIMIENTOS = 256;
+
+    private static final long[] ATAQUES_CABALLO = new long[64];
+    private static final long[] ATAQUES_REY = new long[64];
+    private static final long[][] ATAQUES_PEON = new long[2][64];
+
+    // Direcciones: las cuatro primeras avanzan hacia casillas mayores
+    private static final int NORTE = 0;
+    private static final int NORESTE = 1;
+    private static final int ESTE = 2;
+    private static final int NOROESTE = 3;
+    private static final int SUR = 4;
+    private static final int SUROESTE = 5;
+    private static final int OESTE = 6;
+    private static final int SURESTE = 7;
+    private static final int[][] PASOS = {
+            { 0, 1 }, { 1, 1 }, { 1, 0 }, { -1, 1 }, { 0, -1 }, { -1, -1 }, { -1, 0 }, { 1, -1 } };
+    private static final long[][] RAYOS = new long[8][64];
+
+    private static final long FILA_3 = 0x0000000000FF0000L;
+    private static final long FILA_6 = 0x0000FF0000000000L;
+    private static final long FILA_1 = 0x00000000000000FFL;
+    private static final long FILA_8 = 0xFF00000000000000L;
+
+    static {
+        int[][] saltosCaballo = { { 1, 2 }, { 2, 1 }, { 2, -1 }, { 1, -2 }, { -1, -2 }, { -2, -1 }, { -2, 1 }, { -1, 2 } };
+        for (int casilla = 0; casilla < 64; casilla++) {
+            int columna = casilla & 7;
+            int fila = casilla >>> 3;
+            for (int[] salto : saltosCaballo) {
+                ATAQUES_CABALLO[casilla] |= bit(columna + salto[0], fila + salto[1]);
+            }
+            for (int[] paso : PASOS) {
+                ATAQUES_REY[casilla] |= bit(columna + paso[0], fila + paso[1]);
+            }
+            ATAQUES_PEON[Tablero.BLANCAS][casilla] = bit(columna - 1, fila + 1) | bit(columna + 1, fila + 1);
+            ATAQUES_PEON[Tablero.NEGRAS][casilla] = bit(columna - 1, fila - 1) | bit(columna + 1, fila - 1);
+            for (int direccion = 0; direccion < 8; direccion++) {
+                int c = columna + PASOS[direccion][0];
+                int f = fila + PASOS[direccion][1];
+                while (c >= 0 && c < 8 && f >= 0 && f < 8) {
+                    RAYOS[direccion][casilla] |= 1L << (f * 8 + c);
+                    c += PASOS[direccion][0];
+                    f += PASOS[direccion][1];
+                }
+            }
+        }
+    }
+
+    private GeneradorMovimientos() {
+    }
+
+    private static long bit(int columna, int fila) {
+        return columna >= 0 && columna < 8 && fila >= 0 && fila < 8 ? 1L << (fila * 8 + columna) : 0L;
+    }
+
+    private static long rayo(int direccion, int casilla, long ocupadas) {
+        long rayo = RAYOS[direccion][casilla];
+        long bloqueadores = rayo & ocupadas;
+        if (bloqueadores != 0) {
+            int primero = direccion < SUR
+                    ? Long.numberOfTrailingZeros(bloqueadores)
+                    : 63 - Long.numberOfLeadingZeros(bloqueadores);
+            rayo ^= RAYOS[direccion][primero];
+        }
+        return rayo;
+    }
+
+    static long ataquesCaballo(int casilla) {
+        return ATAQUES_CABALLO[casilla];
+    }
+
+    static long ataquesAlfil(int casilla, long ocupadas) {
+        return rayo(NORESTE, casilla, ocupadas) | rayo(NOROESTE, casilla, ocupadas)
+                | rayo(SURESTE, casilla, ocupadas) | rayo(SUROESTE, casilla, ocupadas);
+    }
+
+    static long ataquesTorre(int casilla, long ocupadas) {
+        return rayo(NORTE, casilla, ocupadas) | rayo(SUR, casilla, ocupadas)
+                | rayo(ESTE, casilla, ocupadas) | rayo(OESTE, casilla, ocupadas);
+    }
+
+    /**
+     * @return true si alguna pieza de {@code atacante} ataca la casilla
+     */
+    public static boolean atacada(Tablero tablero, int casilla, int atacante) {
+        long[] piezas = tablero.piezas;
+        int base = atacante * 6;
+        if ((ATAQUES_PEON[1 - atacante][casilla] & piezas[base + Tablero.PEON]) != 0
+                || (ATAQUES_CABALLO[casilla] & piezas[base + Tablero.CABALLO]) != 0
+                || (ATAQUES_REY[casilla] & piezas[base + Tablero.REY]) != 0) {
+            return true;
+        }
+        long damas = piezas[base + Tablero.DAMA];
+        return (ataquesAlfil(casilla, tablero.ocupadas) & (piezas[base + Tablero.ALFIL] | damas)) != 0
+                || (ataquesTorre(casilla, tablero.ocupadas) & (piezas[base + Tablero.TORRE] | damas)) != 0;
+    }
+
+    /**
+     * Escribe en {@code movimientos} los movimientos legales de la posición.
+     *
+     * @param movimientos array de al menos {@link #MAXIMO_MOVIMIENTOS} posiciones
+     * @return número de movimientos escritos
+     */
+    public static int generarLegales(Tablero tablero, int[] movimientos) {
+        int total = generarPseudoLegales(tablero, movimientos);
+        int turno = tablero.turno;
+        int legales = 0;
+        for (int i = 0; i < total; i++) {
+            int movimiento = movimientos[i];
+            tablero.hacer(movimiento);
+            if (!atacada(tablero, tablero.casillaRey(turno), 1 - turno)) {
+                movimientos[legales++] = movimiento;
+            }
+            tablero.deshacer(movimiento);
+        }
+        return legales;
+    }
+
+    /**
+     * Busca el movimiento legal que corresponde a un UCI jugado desde esta
+     * posición. Si el UCI no indica la pieza de promoción (datos antiguos
+     * guardados como origen y destino) se toma la dama.
+     *
+     * @param uci movimiento en notación UCI (e2e4, e7e8q)
+     * @return el movimiento, o {@link Movimiento#NULO} si no es legal o no es un UCI
+     */
+    public static int buscarUci(Tablero tablero, String uci) {
+        if (uci == null || uci.length() < 4 || uci.length() > 5) {
+            return Movimiento.NULO;
+        }
+        int origen = Movimiento.casilla(uci, 0);
+        int destino = Movimiento.casilla(uci, 2);
+        if (origen < 0 || destino < 0) {
+            return Movimiento.NULO;
+        }
+        int promocion = 0;
+        if (uci.length() == 5) {
+            promocion = Movimiento.promocionDesdeUci(uci.charAt(4));
+            if (promocion == 0) {
+                return Movimiento.NULO;
+            }
+        }
+
+        // Solo el candidato que coincide pasa por la comprobación de jaque
+        int[] movimientos = new int[MAXIMO_MOVIMIENTOS];
+        int total = generarPseudoLegales(tablero, movimientos);
+        for (int i = 0; i < total; i++) {
+            int movimiento = movimientos[i];
+            int promocionMovimiento = Movimiento.promocion(movimiento);
+            if (Movimiento.origen(movimiento) == origen && Movimiento.destino(movimiento) == destino
+                    && (promocionMovimiento == 0
+                            ? promocion == 0
+                            : promocionMovimiento == (promocion == 0 ? Tablero.DAMA : promocion))) {
+                int turno = tablero.turno;
+                tablero.hacer(movimiento);
+                boolean legal = !atacada(tablero, tablero.casillaRey(turno), 1 - turno);
+                tablero.deshacer(movimiento);
+                return legal ? movimiento : Movimiento.NULO;
+            }
+        }
+        return Movimiento.NULO;
+    }
+
+    /**
+     * Comprueba si el UCI puede ser el movimiento que acaba de producir esta
+     * posición (la convención del tablero de la aplicación, que guarda el FEN
+     * posterior a la jugada): la pieza está en el destino, el origen quedó
+     * vacío, la geometría es la de esa pieza con el camino libre y el bando que
+     * movió no quedó en jaque (esto último ya lo garantiza {@link Tablero#desdeFen}).
+     */
+    public static boolean esMovimientoPrevio(Tablero tablero, String uci) {
+        if (uci == null || uci.length() < 4 || uci.length() > 5) {
+            return false;
+        }
+        int origen = Movimiento.casilla(uci, 0);
+        int destino = Movimiento.casilla(uci, 2);
+        if (origen < 0 || destino < 0 || origen == destino) {
+            return false;
+        }
+        int movio = 1 - tablero.turno;
+        int pieza = tablero.casillas[destino];
+        if (pieza == Tablero.VACIA || pieza / 6 != movio || tablero.casillas[origen] != Tablero.VACIA) {
+            return false;
+        }
+
+        int tipo = pieza % 6;
+        int filaOrigen = origen >>> 3;
+        int filaDestino = destino >>> 3;
+        int filaPromocion = movio == Tablero.BLANCAS ? 7 : 0;
+        if (uci.length() == 5) {
+            int promocion = Movimiento.promocionDesdeUci(uci.charAt(4));
+            if (promocion == 0 || promocion != tipo || filaDestino != filaPromocion) {
+                return false;
+            }
+            return esAvanceDePeon(tablero, movio, origen, destino);
+        }
+        if (filaDestino == filaPromocion && tipo != Tablero.PEON && tipo != Tablero.REY
+                && filaOrigen == (movio == Tablero.BLANCAS ? 6 : 1)
+                && esAvanceDePeon(tablero, movio, origen, destino)) {
+            // Promoción guardada solo como origen y destino
+            return true;
+        }
+
+        long ocupadas = tablero.ocupadas;
+        return switch (tipo) {
+            case Tablero.PEON -> esAvanceDePeon(tablero, movio, origen, destino);
+            case Tablero.CABALLO -> (ATAQUES_CABALLO[origen] & (1L << destino)) != 0;
+            case Tablero.ALFIL -> (ataquesAlfil(origen, ocupadas) & (1L << destino)) != 0;
+            case Tablero.TORRE -> (ataquesTorre(origen, ocupadas) & (1L << destino)) != 0;
+            case Tablero.DAMA -> ((ataquesAlfil(origen, ocupadas) | ataquesTorre(origen, ocupadas))
+                    & (1L << destino)) != 0;
+            default -> (ATAQUES_REY[origen] & (1L << destino)) != 0 || esEnroquePrevio(tablero, movio, origen, destino);
+        };
+    }
+
+    private static boolean esAvanceDePeon(Tablero tablero, int movio, int origen, int destino) {
+        int avance = movio == Tablero.BLANCAS ? 8 : -8;
+        int filaInicial = movio == Tablero.BLANCAS ? 1 : 6;
+        if (destino == origen + avance) {
+            return true;
+        }
+        if (destino == origen + 2 * avance) {
+            return origen >>> 3 == filaInicial && tablero.casillas[origen + avance] == Tablero.VACIA;
+        }
+        // Captura (normal o al paso)
+        return (ATAQUES_PEON[movio][origen] & (1L << destino)) != 0;
+    }
+
+    private static boolean esEnroquePrevio(Tablero tablero, int movio, int origen, int destino) {
+        int esquina = movio == Tablero.BLANCAS ? 0 : 56;
+        if (origen != esquina + 4) {
+            return false;
+        }
+        int torre = movio * 6 + Tablero.TORRE;
+        if (destino == esquina + 6) {
+            return tablero.casillas[esquina + 5] == torre && tablero.casillas[esquina + 7] == Tablero.VACIA;
+        }
+        if (destino == esquina + 2) {
+            return tablero.casillas[esquina + 3] == torre && tablero.casillas[esquina] == Tablero.VACIA
+                    && tablero.casillas[esquina + 1] == Tablero.VACIA;
+        }
+        return false;
+    }
+
+    /**
+     * Número de nodos hoja a la profundidad indicada; sirve para comprobar el
+     * generador contra valores de referencia.
+     */
+    public static long perft(Tablero tablero, int profundidad) {
+        int[] movimientos = new int[MAXIMO_MOVIMIENTOS];
+        int total = generarLegales(tablero, movimientos);
+        if (profundidad <= 1) {
+            return profundidad == 1 ? total : 1;
+        }
+        long nodos = 0;
+        for (int i = 0; i < total; i++) {
+            tablero.hacer(movimientos[i]);
+            nodos += perft(tablero, profundidad - 1);
+            tablero.deshacer(movimientos[i]);
+        }
+        return nodos;
+    }
+
+    static int generarPseudoLegales(Tablero tablero, int[] movimientos) {
+        int turno = tablero.turno;
+        int rival = 1 - turno;
+        long[] piezas = tablero.piezas;
+        long propias = tablero.colores[turno];
+        long ocupadas = tablero.ocupadas;
+        int base = turno * 6;
+        int n = 0;
+
+        n = generarPeones(tablero, movimientos, n);
+
+        long caballos = piezas[base + Tablero.CABALLO];
+        while (caballos != 0) {
+            int origen = Long.numberOfTrailingZeros(caballos);
+            caballos &= caballos - 1;
+            n = anadirDestinos(movimientos, n, origen, ATAQUES_CABALLO[origen] & ~propias);
+        }
+
+        long alfiles = piezas[base + Tablero.ALFIL] | piezas[base + Tablero.DAMA];
+        while (alfiles != 0) {
+            int origen = Long.numberOfTrailingZeros(alfiles);
+            alfiles &= alfiles - 1;
+            n = anadirDestinos(movimientos, n, origen, ataquesAlfil(origen, ocupadas) & ~propias);
+        }
+
+        long torres = piezas[base + Tablero.TORRE] | piezas[base + Tablero.DAMA];
+        while (torres != 0) {
+            int origen = Long.numberOfTrailingZeros(torres);
+            torres &= torres - 1;
+            n = anadirDestinos(movimientos, n, origen, ataquesTorre(origen, ocupadas) & ~propias);
+        }
+
+        int rey = tablero.casillaRey(turno);
+        n = anadirDestinos(movimientos, n, rey, ATAQUES_REY[rey] & ~propias);
+
+        // Enroques: casillas intermedias libres y el rey no puede pasar por casillas atacadas
+        if (turno == Tablero.BLANCAS) {
+            if ((tablero.enroques & Tablero.ENROQUE_CORTO_BLANCAS) != 0 && (ocupadas & 0x60L) == 0
+                    && !atacada(tablero, 4, rival) && !atacada(tablero, 5, rival) && !atacada(tablero, 6, rival)) {
+                movimientos[n++] = Movimiento.crear(4, 6, 0, Movimiento.ENROQUE);
+            }
+            if ((tablero.enroques & Tablero.ENROQUE_LARGO_BLANCAS) != 0 && (ocupadas & 0x0EL) == 0
+                    && !atacada(tablero, 4, rival) && !atacada(tablero, 3, rival) && !atacada(tablero, 2, rival)) {
+                movimientos[n++] = Movimiento.crear(4, 2, 0, Movimiento.ENROQUE);
+            }
+        } else {
+            if ((tablero.enroques & Tablero.ENROQUE_CORTO_NEGRAS) != 0 && (ocupadas & (0x60L << 56)) == 0
+                    && !atacada(tablero, 60, rival) && !atacada(tablero, 61, rival) && !atacada(tablero, 62, rival)) {
+                movimientos[n++] = Movimiento.crear(60, 62, 0, Movimiento.ENROQUE);
+            }
+            if ((tablero.enroques & Tablero.ENROQUE_LARGO_NEGRAS) != 0 && (ocupadas & (0x0EL << 56)) == 0
+                    && !atacada(tablero, 60, rival) && !atacada(tablero, 59, rival) && !atacada(tablero, 58, rival)) {
+                movimientos[n++] = Movimiento.crear(60, 58, 0, Movimiento.ENROQUE);
+            }
+        }
+
+        return n;
+    }
+
+    private static int generarPeones(Tablero tablero, int[] movimientos, int n) {
+        int turno = tablero.turno;
+        long peones = tablero.piezas[turno * 6 + Tablero.PEON];
+        long libres = ~tablero.ocupadas;
+        long ajenas = tablero.colores[1 - turno];
+        long promocion = turno == Tablero.BLANCAS ? FILA_8 : FILA_1;
+        int avance = turno == Tablero.BLANCAS ? 8 : -8;
+
+        long simples;
+        long dobles;
+        if (turno == Tablero.BLANCAS) {
+            simples = (peones << 8) & libres;
+            dobles = ((simples & FILA_3) << 8) & libres;
+        } else {
+            simples = (peones >>> 8) & libres;
+            dobles = ((simples & FILA_6) >>> 8) & libres;
+        }
+
+        while (simples != 0) {
+            int destino = Long.numberOfTrailingZeros(simples);
+            simples &= simples - 1;
+            n = anadirPeon(movimientos, n, destino - avance, destino, (promocion & (1L << destino)) != 0);
+        }
+        while (dobles != 0) {
+            int destino = Long.numberOfTrailingZeros(dobles);
+            dobles &= dobles - 1;
+            movimientos[n++] = Movimiento.crear(destino - 2 * avance, destino, 0, Movimiento.AVANCE_DOBLE);
+        }
+
+        long capturan = peones;
+        while (capturan != 0) {
+            int origen = Long.numberOfTrailingZeros(capturan);
+            capturan &= capturan - 1;
+            long capturas = ATAQUES_PEON[turno][origen] & ajenas;
+            while (capturas != 0) {
+                int destino = Long.numberOfTrailingZeros(capturas);
+                capturas &= capturas - 1;
+                n = anadirPeon(movimientos, n, origen, destino, (promocion & (1L << destino)) != 0);
+            }
+            if (tablero.alPaso >= 0 && (ATAQUES_PEON[turno][origen] & (1L << tablero.alPaso)) != 0) {
+                movimientos[n++] = Movimiento.crear(origen, tablero.alPaso, 0, Movimiento.AL_PASO);
+            }
+        }
+        return n;
+    }
+
+    private static int anadirPeon(int[] movimientos, int n, int origen, int destino, boolean promociona) {
+        if (promociona) {
+            movimientos[n++] = Movimiento.crear(origen, destino, Tablero.DAMA, Movimiento.NORMAL);
+            movimientos[n++] = Movimiento.crear(origen, destino, Tablero.TORRE, Movimiento.NORMAL);
+            movimientos[n++] = Movimiento.crear(origen, destino, Tablero.ALFIL, Movimiento.NORMAL);
+            movimientos[n++] = Movimiento.crear(origen, destino, Tablero.CABALLO, Movimiento.NORMAL);
+        } else {
+            movimientos[n++] = Movimiento.crear(origen, destino);
+        }
+        return n;
+    }
+
+    private static int anadirDestinos(int[] movimientos, int n, int origen, long destinos) {
+        while (destinos != 0) {
+            int destino = Long.numberOfTrailingZeros(destinos);
+            destinos &= destinos - 1;
+            movimientos[n++] = Movimiento.crear(origen, destino);
+        }
+        return n;
+    }
+}
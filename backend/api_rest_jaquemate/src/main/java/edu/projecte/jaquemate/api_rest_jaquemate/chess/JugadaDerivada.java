@@ -0,0 +1,14 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * SAN y FEN resultante calculados a partir de la posición y el UCI de una jugada.
+ */
+@Getter
+@AllArgsConstructor
+public class JugadaDerivada {
+    private final String moveSan;
+    private final String fenResultante;
+}
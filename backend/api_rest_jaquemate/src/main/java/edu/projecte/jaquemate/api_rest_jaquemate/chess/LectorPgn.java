@@ -0,0 +1,195 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lector de ficheros PGN con varias partidas. Lee línea a línea y solo
+ * guarda la partida en curso, así que la memoria no depende del tamaño del
+ * fichero. De cada partida se quedan las etiquetas y la línea principal: los
+ * comentarios ({...} y ;), NAGs ($n), variantes (...) y números de jugada se
+ * descartan.
+ */
+public final class LectorPgn {
+
+    // Una partida real no llega ni de lejos; acota la memoria si falta el resultado
+    static final int MAXIMO_JUGADAS = 2048;
+
+    private final BufferedReader reader;
+    private long lineas;
+
+    private boolean enComentario;
+    private int profundidadVariante;
+
+    private long lineaInicio;
+    private Map<String, String> etiquetas = new LinkedHashMap<>();
+    private List<String> jugadas = new ArrayList<>();
+    private boolean enMovimientos;
+
+    public LectorPgn(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return la siguiente partida, o null al final del fichero
+     */
+    public PartidaPgn siguiente() throws IOException {
+        String linea;
+        while ((linea = reader.readLine()) != null) {
+            lineas++;
+
+            if (!enComentario && profundidadVariante == 0) {
+                // Línea de escape: se ignora entera
+                if (linea.startsWith("%")) {
+                    continue;
+                }
+                String recortada = linea.strip();
+                if (recortada.startsWith("[")) {
+                    // Etiquetas tras movimientos sin resultado: empieza otra partida
+                    PartidaPgn anterior = enMovimientos ? cerrar(null) : null;
+                    leerEtiqueta(recortada);
+                    if (anterior != null) {
+                        return anterior;
+                    }
+                    continue;
+                }
+            }
+
+            PartidaPgn partida = leerMovimientos(linea);
+            if (partida != null) {
+                return partida;
+            }
+        }
+        return enMovimientos || !etiquetas.isEmpty() ? cerrar(null) : null;
+    }
+
+    public long getLineasLeidas() {
+        return lineas;
+    }
+
+    private void leerEtiqueta(String linea) {
+        marcarInicio();
+        int nombreFin = 1;
+        while (nombreFin < linea.length() && !Character.isWhitespace(linea.charAt(nombreFin))
+                && linea.charAt(nombreFin) != '"') {
+            nombreFin++;
+        }
+        int comillaInicio = linea.indexOf('"', nombreFin);
+        int comillaFin = linea.lastIndexOf('"');
+        if (nombreFin == 1 || comillaInicio < 0 || comillaFin <= comillaInicio) {
+            return;
+        }
+        String valor = linea.substring(comillaInicio + 1, comillaFin)
+                .replace("\\\"", "\"")
+                .replace("\\\\", "\\");
+        etiquetas.put(linea.substring(1, nombreFin), valor);
+    }
+
+    private PartidaPgn leerMovimientos(String linea) {
+        int i = 0;
+        int n = linea.length();
+        while (i < n) {
+            char c = linea.charAt(i);
+            if (enComentario) {
+                int cierre = linea.indexOf('}', i);
+                if (cierre < 0) {
+                    return null;
+                }
+                enComentario = false;
+                i = cierre + 1;
+            } else if (c == '{') {
+                enComentario = true;
+                i++;
+            } else if (c == ';') {
+                return null;
+            } else if (c == '(') {
+                profundidadVariante++;
+                i++;
+            } else if (c == ')') {
+                if (profundidadVariante > 0) {
+                    profundidadVariante--;
+                }
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                int fin = i;
+                while (fin < n && !esSeparador(linea.charAt(fin))) {
+                    fin++;
+                }
+                if (profundidadVariante == 0) {
+                    PartidaPgn partida = leerToken(linea, i, fin);
+                    if (partida != null) {
+                        return partida;
+                    }
+                }
+                i = fin;
+            }
+        }
+        return null;
+    }
+
+    private PartidaPgn leerToken(String linea, int inicio, int fin) {
+        if (linea.charAt(inicio) == '$') {
+            return null;
+        }
+        marcarInicio();
+        String token = linea.substring(inicio, fin);
+        if (token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*")) {
+            return cerrar(token);
+        }
+
+        // Números de jugada, sueltos o pegados al movimiento: 12. 12... 12.e4
+        int j = inicio;
+        while (j < fin && Character.isDigit(linea.charAt(j))) {
+            j++;
+        }
+        if (j == fin) {
+            return null;
+        }
+        if (j > inicio && linea.charAt(j) == '.') {
+            while (j < fin && linea.charAt(j) == '.') {
+                j++;
+            }
+            if (j == fin) {
+                return null;
+            }
+            token = linea.substring(j, fin);
+        }
+        // Anotaciones sueltas (!, ?!) separadas del movimiento
+        if (token.chars().allMatch(a -> a == '!' || a == '?')) {
+            return null;
+        }
+
+        enMovimientos = true;
+        if (jugadas.size() < MAXIMO_JUGADAS) {
+            jugadas.add(token);
+        }
+        return null;
+    }
+
+    private void marcarInicio() {
+        if (lineaInicio == 0) {
+            lineaInicio = lineas;
+        }
+    }
+
+    private PartidaPgn cerrar(String resultado) {
+        PartidaPgn partida = new PartidaPgn(lineaInicio, etiquetas, jugadas, resultado);
+        etiquetas = new LinkedHashMap<>();
+        jugadas = new ArrayList<>();
+        enMovimientos = false;
+        lineaInicio = 0;
+        enComentario = false;
+        profundidadVariante = 0;
+        return partida;
+    }
+
+    private static boolean esSeparador(char c) {
+        return Character.isWhitespace(c) || c == '{' || c == '}' || c == '(' || c == ')' || c == ';';
+    }
+}
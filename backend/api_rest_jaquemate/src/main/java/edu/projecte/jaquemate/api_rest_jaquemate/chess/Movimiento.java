@@ -0,0 +1,87 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+/**
+ * Codificación de un movimiento en un int, para generar listas sin crear
+ * objetos: bits 0-5 origen, 6-11 destino, 12-14 pieza de promoción
+ * ({@link Tablero#CABALLO} a {@link Tablero#DAMA}, 0 si no hay) y 15-16 tipo
+ * especial. El valor 0 nunca es un movimiento válido (origen igual a destino).
+ */
+public final class Movimiento {
+
+    public static final int NULO = 0;
+
+    public static final int NORMAL = 0;
+    public static final int AL_PASO = 1;
+    public static final int ENROQUE = 2;
+    public static final int AVANCE_DOBLE = 3;
+
+    private static final String PROMOCIONES_UCI = " nbrq";
+
+    private Movimiento() {
+    }
+
+    public static int crear(int origen, int destino) {
+        return origen | (destino << 6);
+    }
+
+    public static int crear(int origen, int destino, int promocion, int especial) {
+        return origen | (destino << 6) | (promocion << 12) | (especial << 15);
+    }
+
+    public static int origen(int movimiento) {
+        return movimiento & 0x3F;
+    }
+
+    public static int destino(int movimiento) {
+        return (movimiento >>> 6) & 0x3F;
+    }
+
+    public static int promocion(int movimiento) {
+        return (movimiento >>> 12) & 0x7;
+    }
+
+    public static int especial(int movimiento) {
+        return (movimiento >>> 15) & 0x3;
+    }
+
+    /**
+     * @return el movimiento en notación UCI (e2e4, e7e8q)
+     */
+    public static String toUci(int movimiento) {
+        StringBuilder uci = new StringBuilder(5)
+                .append(nombreCasilla(origen(movimiento)))
+                .append(nombreCasilla(destino(movimiento)));
+        if (promocion(movimiento) != 0) {
+            uci.append(PROMOCIONES_UCI.charAt(promocion(movimiento)));
+        }
+        return uci.toString();
+    }
+
+    /**
+     * @param uci pieza de promoción en minúscula o mayúscula
+     * @return el tipo de pieza, 0 si no es una promoción válida
+     */
+    public static int promocionDesdeUci(char uci) {
+        int tipo = PROMOCIONES_UCI.indexOf(Character.toLowerCase(uci));
+        return tipo >= Tablero.CABALLO ? tipo : 0;
+    }
+
+    public static String nombreCasilla(int casilla) {
+        return new String(new char[] { (char) ('a' + (casilla & 7)), (char) ('1' + (casilla >>> 3)) });
+    }
+
+    /**
+     * @return índice 0-63 (a1 = 0, h8 = 63) o -1 si el texto no es una casilla
+     */
+    public static int casilla(CharSequence texto, int desde) {
+        if (texto.length() < desde + 2) {
+            return -1;
+        }
+        int columna = texto.charAt(desde) - 'a';
+        int fila = texto.charAt(desde + 1) - '1';
+        if (columna < 0 || columna > 7 || fila < 0 || fila > 7) {
+            return -1;
+        }
+        return fila * 8 + columna;
+    }
+}
@@ -0,0 +1,219 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+/**
+ * Notación algebraica estándar (SAN) de un movimiento legal: desambiguación
+ * por columna, fila o ambas, capturas, promoción (=Q) y sufijos de jaque (+) y
+ * mate (#). Es la misma notación que genera chess.js en el frontend, y la
+ * que se lee de las partidas PGN importadas.
+ */
+public final class NotacionSan {
+
+    private static final String LETRAS_PIEZA = "PNBRQK";
+
+    private NotacionSan() {
+    }
+
+    /**
+     * @param movimiento movimiento legal en la posición del tablero; el tablero
+     *                   queda como estaba
+     */
+    public static String san(Tablero tablero, int movimiento) {
+        StringBuilder san = new StringBuilder(8);
+        int origen = Movimiento.origen(movimiento);
+        int destino = Movimiento.destino(movimiento);
+        int tipo = tablero.casillas[origen] % 6;
+
+        if (Movimiento.especial(movimiento) == Movimiento.ENROQUE) {
+            san.append((destino & 7) == 6 ? "O-O" : "O-O-O");
+        } else {
+            boolean captura = tablero.casillas[destino] != Tablero.VACIA
+                    || Movimiento.especial(movimiento) == Movimiento.AL_PASO;
+            if (tipo == Tablero.PEON) {
+                if (captura) {
+                    san.append((char) ('a' + (origen & 7)));
+                }
+            } else {
+                san.append(LETRAS_PIEZA.charAt(tipo));
+                if (tipo != Tablero.REY) {
+                    desambiguar(tablero, movimiento, san);
+                }
+            }
+            if (captura) {
+                san.append('x');
+            }
+            san.append(Movimiento.nombreCasilla(destino));
+            if (Movimiento.promocion(movimiento) != 0) {
+                san.append('=').append(LETRAS_PIEZA.charAt(Movimiento.promocion(movimiento)));
+            }
+        }
+
+        tablero.hacer(movimiento);
+        if (tablero.enJaque()) {
+            san.append(tieneMovimientos(tablero) ? '+' : '#');
+        }
+        tablero.deshacer(movimiento);
+        return san.toString();
+    }
+
+    /**
+     * Resuelve un movimiento en SAN (Nf3, exd6, e8=Q+, O-O) en la posición del
+     * tablero. Se toleran las variantes habituales en bases PGN: enroque con
+     * ceros, promoción sin '=' y anotaciones !? al final.
+     *
+     * @return el movimiento legal, o {@link Movimiento#NULO} si el SAN no es
+     *         válido, es ambiguo o no es legal
+     */
+    public static int buscar(Tablero tablero, String san) {
+        int fin = san.length();
+        while (fin > 0 && "+#!?".indexOf(san.charAt(fin - 1)) >= 0) {
+            fin--;
+        }
+        if (fin < 2) {
+            return Movimiento.NULO;
+        }
+
+        int[] movimientos = new int[GeneradorMovimientos.MAXIMO_MOVIMIENTOS];
+        int total = GeneradorMovimientos.generarPseudoLegales(tablero, movimientos);
+
+        if (san.charAt(0) == 'O' || san.charAt(0) == '0') {
+            int columnaRey;
+            if (esEnroque(san, fin, 3)) {
+                columnaRey = 6;
+            } else if (esEnroque(san, fin, 5)) {
+                columnaRey = 2;
+            } else {
+                return Movimiento.NULO;
+            }
+            for (int i = 0; i < total; i++) {
+                int movimiento = movimientos[i];
+                if (Movimiento.especial(movimiento) == Movimiento.ENROQUE
+                        && (Movimiento.destino(movimiento) & 7) == columnaRey) {
+                    return esLegal(tablero, movimiento) ? movimiento : Movimiento.NULO;
+                }
+            }
+            return Movimiento.NULO;
+        }
+
+        int inicio = 0;
+        int tipo = Tablero.PEON;
+        int letra = LETRAS_PIEZA.indexOf(san.charAt(0));
+        if (letra >= 0) {
+            tipo = letra;
+            inicio = 1;
+        }
+
+        int promocion = 0;
+        if (tipo == Tablero.PEON) {
+            int pieza = LETRAS_PIEZA.indexOf(san.charAt(fin - 1));
+            if (pieza >= Tablero.CABALLO && pieza <= Tablero.DAMA) {
+                promocion = pieza;
+                fin -= san.charAt(fin - 2) == '=' ? 2 : 1;
+            }
+        }
+        int destino = fin - inicio >= 2 ? Movimiento.casilla(san, fin - 2) : -1;
+        if (destino < 0) {
+            return Movimiento.NULO;
+        }
+
+        int columna = -1;
+        int fila = -1;
+        for (int i = inicio; i < fin - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                columna = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fila = c - '1';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                return Movimiento.NULO;
+            }
+        }
+
+        // Solo los candidatos que encajan pasan por la comprobación de jaque
+        int encontrado = Movimiento.NULO;
+        for (int i = 0; i < total; i++) {
+            int movimiento = movimientos[i];
+            int origen = Movimiento.origen(movimiento);
+            if (Movimiento.destino(movimiento) != destino
+                    || tablero.casillas[origen] % 6 != tipo
+                    || Movimiento.promocion(movimiento) != promocion
+                    || Movimiento.especial(movimiento) == Movimiento.ENROQUE
+                    || (columna >= 0 && (origen & 7) != columna)
+                    || (fila >= 0 && (origen >>> 3) != fila)
+                    || !esLegal(tablero, movimiento)) {
+                continue;
+            }
+            if (encontrado != Movimiento.NULO) {
+                return Movimiento.NULO;
+            }
+            encontrado = movimiento;
+        }
+        return encontrado;
+    }
+
+    // O-O con longitud 3 o O-O-O con longitud 5, con letras o con ceros
+    private static boolean esEnroque(String san, int fin, int longitud) {
+        if (fin != longitud) {
+            return false;
+        }
+        char enroque = san.charAt(0);
+        for (int i = 0; i < longitud; i++) {
+            if (san.charAt(i) != (i % 2 == 0 ? enroque : '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esLegal(Tablero tablero, int movimiento) {
+        int turno = tablero.turno;
+        tablero.hacer(movimiento);
+        boolean legal = !GeneradorMovimientos.atacada(tablero, tablero.casillaRey(turno), 1 - turno);
+        tablero.deshacer(movimiento);
+        return legal;
+    }
+
+    /*
+     * Otra pieza del mismo tipo que llega legalmente al mismo destino obliga a
+     * indicar el origen. Las candidatas salen de los ataques desde el destino,
+     * así que en el caso habitual (ninguna) no hay que generar movimientos.
+     */
+    private static void desambiguar(Tablero tablero, int movimiento, StringBuilder san) {
+        int origen = Movimiento.origen(movimiento);
+        int destino = Movimiento.destino(movimiento);
+        int pieza = tablero.casillas[origen];
+        long alcance = switch (pieza % 6) {
+            case Tablero.CABALLO -> GeneradorMovimientos.ataquesCaballo(destino);
+            case Tablero.ALFIL -> GeneradorMovimientos.ataquesAlfil(destino, tablero.ocupadas);
+            case Tablero.TORRE -> GeneradorMovimientos.ataquesTorre(destino, tablero.ocupadas);
+            default -> GeneradorMovimientos.ataquesAlfil(destino, tablero.ocupadas)
+                    | GeneradorMovimientos.ataquesTorre(destino, tablero.ocupadas);
+        };
+        long candidatas = alcance & tablero.piezas[pieza] & ~(1L << origen);
+
+        boolean ambigua = false;
+        boolean mismaColumna = false;
+        boolean mismaFila = false;
+        for (; candidatas != 0; candidatas &= candidatas - 1) {
+            int otro = Long.numberOfTrailingZeros(candidatas);
+            if (esLegal(tablero, Movimiento.crear(otro, destino))) {
+                ambigua = true;
+                mismaColumna |= (otro & 7) == (origen & 7);
+                mismaFila |= (otro >>> 3) == (origen >>> 3);
+            }
+        }
+        if (!ambigua) {
+            return;
+        }
+        if (!mismaColumna) {
+            san.append((char) ('a' + (origen & 7)));
+        } else if (!mismaFila) {
+            san.append((char) ('1' + (origen >>> 3)));
+        } else {
+            san.append(Movimiento.nombreCasilla(origen));
+        }
+    }
+
+    private static boolean tieneMovimientos(Tablero tablero) {
+        return GeneradorMovimientos.generarLegales(tablero, new int[GeneradorMovimientos.MAXIMO_MOVIMIENTOS]) > 0;
+    }
+}
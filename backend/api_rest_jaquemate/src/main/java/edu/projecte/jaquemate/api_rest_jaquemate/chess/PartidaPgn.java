@@ -0,0 +1,29 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Una partida leída de un fichero PGN: etiquetas y línea principal en SAN,
+ * sin comentarios, NAGs ni variantes.
+ */
+@Getter
+@AllArgsConstructor
+public class PartidaPgn {
+    // Línea del fichero donde empieza la partida, para los mensajes de error
+    private final long linea;
+    private final Map<String, String> etiquetas;
+    private final List<String> jugadas;
+    private final String resultado;
+
+    /**
+     * @return el FEN de la etiqueta [FEN] (partidas desde una posición), o
+     *         null si la partida empieza en la posición inicial
+     */
+    public String getFenInicial() {
+        return etiquetas.get("FEN");
+    }
+}
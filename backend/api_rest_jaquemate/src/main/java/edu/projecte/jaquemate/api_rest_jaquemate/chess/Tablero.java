@@ -0,0 +1,392 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+import java.util.Arrays;
+
+/**
+ * Posición de ajedrez con bitboards (a1 = bit 0, h8 = bit 63). Es mutable:
+ * {@link #hacer(int)} y {@link #deshacer(int)} aplican y revierten un
+ * movimiento sin crear objetos, que es lo que permite validar millones de
+ * posiciones por segundo. No es thread-safe; cada hilo usa su propio tablero.
+ */
+public final class Tablero {
+
+    public static final int BLANCAS = 0;
+    public static final int NEGRAS = 1;
+
+    public static final int PEON = 0;
+    public static final int CABALLO = 1;
+    public static final int ALFIL = 2;
+    public static final int TORRE = 3;
+    public static final int DAMA = 4;
+    public static final int REY = 5;
+
+    public static final int VACIA = -1;
+
+    public static final String FEN_INICIAL = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // Mismo orden que Zobrist: primero las blancas
+    private static final String PIEZAS_FEN = "PNBRQKpnbrqk";
+
+    static final int ENROQUE_CORTO_BLANCAS = 1;
+    static final int ENROQUE_LARGO_BLANCAS = 2;
+    static final int ENROQUE_CORTO_NEGRAS = 4;
+    static final int ENROQUE_LARGO_NEGRAS = 8;
+
+    // Derechos de enroque que se conservan al mover desde o hacia cada casilla
+    private static final int[] MASCARA_ENROQUE = new int[64];
+
+    static {
+        Arrays.fill(MASCARA_ENROQUE, 15);
+        MASCARA_ENROQUE[0] &= ~ENROQUE_LARGO_BLANCAS;
+        MASCARA_ENROQUE[7] &= ~ENROQUE_CORTO_BLANCAS;
+        MASCARA_ENROQUE[4] &= ~(ENROQUE_CORTO_BLANCAS | ENROQUE_LARGO_BLANCAS);
+        MASCARA_ENROQUE[56] &= ~ENROQUE_LARGO_NEGRAS;
+        MASCARA_ENROQUE[63] &= ~ENROQUE_CORTO_NEGRAS;
+        MASCARA_ENROQUE[60] &= ~(ENROQUE_CORTO_NEGRAS | ENROQUE_LARGO_NEGRAS);
+    }
+
+    final long[] piezas = new long[12];
+    final long[] colores = new long[2];
+    long ocupadas;
+    final int[] casillas = new int[64];
+    int turno;
+    int enroques;
+    int alPaso = -1;
+    int medioMovimientos;
+    int numeroJugada = 1;
+
+    // Pila de estado para deshacer: pieza capturada, enroques, al paso y contador
+    private int[] historial = new int[16];
+    private int ply;
+
+    private Tablero() {
+        Arrays.fill(casillas, VACIA);
+    }
+
+    /**
+     * @param fen posición en notación FEN; los contadores son opcionales
+     * @throws IllegalArgumentException si el FEN no es válido o la posición es imposible
+     */
+    public static Tablero desdeFen(String fen) {
+        if (fen == null || fen.isBlank()) {
+            throw new IllegalArgumentException("FEN vacío");
+        }
+        String[] campos = separarCampos(fen);
+        if (campos[1] == null) {
+            throw new IllegalArgumentException("FEN incompleto: " + fen);
+        }
+
+        Tablero tablero = new Tablero();
+        tablero.parsearColocacion(campos[0]);
+
+        switch (campos[1]) {
+            case "w" -> tablero.turno = BLANCAS;
+            case "b" -> tablero.turno = NEGRAS;
+            default -> throw new IllegalArgumentException("Turno no válido: " + campos[1]);
+        }
+
+        if (campos[2] != null && !"-".equals(campos[2])) {
+            for (char c : campos[2].toCharArray()) {
+                tablero.enroques |= switch (c) {
+                    case 'K' -> ENROQUE_CORTO_BLANCAS;
+                    case 'Q' -> ENROQUE_LARGO_BLANCAS;
+                    case 'k' -> ENROQUE_CORTO_NEGRAS;
+                    case 'q' -> ENROQUE_LARGO_NEGRAS;
+                    default -> throw new IllegalArgumentException("Enroque no válido: " + campos[2]);
+                };
+            }
+            tablero.descartarEnroquesImposibles();
+        }
+
+        if (campos[3] != null && !"-".equals(campos[3])) {
+            int casilla = Movimiento.casilla(campos[3], 0);
+            if (casilla < 0 || campos[3].length() != 2) {
+                throw new IllegalArgumentException("Casilla al paso no válida: " + campos[3]);
+            }
+            tablero.alPaso = casilla;
+        }
+
+        try {
+            tablero.medioMovimientos = campos[4] != null ? Integer.parseInt(campos[4]) : 0;
+            tablero.numeroJugada = campos[5] != null ? Integer.parseInt(campos[5]) : 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Contadores no válidos en el FEN: " + fen);
+        }
+
+        tablero.comprobarPosicion();
+        return tablero;
+    }
+
+    // Sin expresiones regulares: el FEN se parsea una vez por jugada validada
+    private static String[] separarCampos(String fen) {
+        String[] campos = new String[6];
+        int n = 0;
+        int i = 0;
+        int longitud = fen.length();
+        while (i < longitud) {
+            while (i < longitud && Character.isWhitespace(fen.charAt(i))) {
+                i++;
+            }
+            int inicio = i;
+            while (i < longitud && !Character.isWhitespace(fen.charAt(i))) {
+                i++;
+            }
+            if (i > inicio) {
+                if (n == campos.length) {
+                    throw new IllegalArgumentException("FEN con campos de más: " + fen);
+                }
+                campos[n++] = fen.substring(inicio, i);
+            }
+        }
+        return campos;
+    }
+
+    private void parsearColocacion(String colocacion) {
+        int fila = 7;
+        int columna = 0;
+        for (int i = 0; i < colocacion.length(); i++) {
+            char c = colocacion.charAt(i);
+            if (c == '/') {
+                if (columna != 8 || fila == 0) {
+                    throw new IllegalArgumentException("Colocación no válida en el FEN: " + colocacion);
+                }
+                fila--;
+                columna = 0;
+            } else if (c >= '1' && c <= '8') {
+                columna += c - '0';
+                if (columna > 8) {
+                    throw new IllegalArgumentException("Colocación no válida en el FEN: " + colocacion);
+                }
+            } else {
+                int pieza = PIEZAS_FEN.indexOf(c);
+                if (pieza < 0 || columna > 7) {
+                    throw new IllegalArgumentException("Colocación no válida en el FEN: " + colocacion);
+                }
+                poner(pieza, fila * 8 + columna);
+                columna++;
+            }
+        }
+        if (fila != 0 || columna != 8) {
+            throw new IllegalArgumentException("La colocación debe tener 8 filas de 8 casillas: " + colocacion);
+        }
+    }
+
+    private void descartarEnroquesImposibles() {
+        // Derechos que no corresponden a rey y torre en su casilla inicial (FEN mal normalizados)
+        if (casillas[4] != REY) {
+            enroques &= ~(ENROQUE_CORTO_BLANCAS | ENROQUE_LARGO_BLANCAS);
+        }
+        if (casillas[7] != TORRE) {
+            enroques &= ~ENROQUE_CORTO_BLANCAS;
+        }
+        if (casillas[0] != TORRE) {
+            enroques &= ~ENROQUE_LARGO_BLANCAS;
+        }
+        if (casillas[60] != 6 + REY) {
+            enroques &= ~(ENROQUE_CORTO_NEGRAS | ENROQUE_LARGO_NEGRAS);
+        }
+        if (casillas[63] != 6 + TORRE) {
+            enroques &= ~ENROQUE_CORTO_NEGRAS;
+        }
+        if (casillas[56] != 6 + TORRE) {
+            enroques &= ~ENROQUE_LARGO_NEGRAS;
+        }
+    }
+
+    private void comprobarPosicion() {
+        if (Long.bitCount(piezas[REY]) != 1 || Long.bitCount(piezas[6 + REY]) != 1) {
+            throw new IllegalArgumentException("Cada bando debe tener exactamente un rey");
+        }
+        if (((piezas[PEON] | piezas[6 + PEON]) & 0xFF000000000000FFL) != 0) {
+            throw new IllegalArgumentException("Hay peones en la primera u octava fila");
+        }
+        if (GeneradorMovimientos.atacada(this, casillaRey(1 - turno), turno)) {
+            throw new IllegalArgumentException("El bando que no mueve está en jaque");
+        }
+        // Se descarta una casilla al paso que no encaja con un avance doble del rival
+        if (alPaso >= 0) {
+            int fila = alPaso >>> 3;
+            int peonQueAvanzo = turno == BLANCAS ? alPaso - 8 : alPaso + 8;
+            boolean coherente = (turno == BLANCAS ? fila == 5 : fila == 2)
+                    && casillas[peonQueAvanzo] == (1 - turno) * 6 + PEON
+                    && casillas[alPaso] == VACIA;
+            if (!coherente) {
+                alPaso = -1;
+            }
+        }
+    }
+
+    void poner(int pieza, int casilla) {
+        long bit = 1L << casilla;
+        piezas[pieza] |= bit;
+        colores[pieza / 6] |= bit;
+        ocupadas |= bit;
+        casillas[casilla] = pieza;
+    }
+
+    void quitar(int pieza, int casilla) {
+        long bit = ~(1L << casilla);
+        piezas[pieza] &= bit;
+        colores[pieza / 6] &= bit;
+        ocupadas &= bit;
+        casillas[casilla] = VACIA;
+    }
+
+    public int getTurno() {
+        return turno;
+    }
+
+    public int getNumeroJugada() {
+        return numeroJugada;
+    }
+
+    /**
+     * @return índice de pieza (color * 6 + tipo) o {@link #VACIA}
+     */
+    public int pieza(int casilla) {
+        return casillas[casilla];
+    }
+
+    public int casillaRey(int color) {
+        return Long.numberOfTrailingZeros(piezas[color * 6 + REY]);
+    }
+
+    public boolean enJaque() {
+        return GeneradorMovimientos.atacada(this, casillaRey(turno), 1 - turno);
+    }
+
+    /**
+     * Aplica un movimiento pseudo-legal generado para esta posición.
+     */
+    public void hacer(int movimiento) {
+        int origen = Movimiento.origen(movimiento);
+        int destino = Movimiento.destino(movimiento);
+        int especial = Movimiento.especial(movimiento);
+        int pieza = casillas[origen];
+        int capturada = especial == Movimiento.AL_PASO
+                ? (1 - turno) * 6 + PEON
+                : casillas[destino];
+
+        if (ply == historial.length) {
+            historial = Arrays.copyOf(historial, ply * 2);
+        }
+        historial[ply++] = (capturada + 1) | (enroques << 4) | ((alPaso + 1) << 8) | (medioMovimientos << 15);
+
+        if (especial == Movimiento.AL_PASO) {
+            quitar(capturada, turno == BLANCAS ? destino - 8 : destino + 8);
+        } else if (capturada != VACIA) {
+            quitar(capturada, destino);
+        }
+
+        quitar(pieza, origen);
+        int promocion = Movimiento.promocion(movimiento);
+        poner(promocion != 0 ? turno * 6 + promocion : pieza, destino);
+
+        if (especial == Movimiento.ENROQUE) {
+            int torre = turno * 6 + TORRE;
+            if (destino > origen) {
+                quitar(torre, origen + 3);
+                poner(torre, origen + 1);
+            } else {
+                quitar(torre, origen - 4);
+                poner(torre, origen - 1);
+            }
+        }
+
+        enroques &= MASCARA_ENROQUE[origen] & MASCARA_ENROQUE[destino];
+        alPaso = especial == Movimiento.AVANCE_DOBLE ? (origen + destino) >>> 1 : -1;
+        medioMovimientos = (pieza % 6 == PEON || capturada != VACIA) ? 0 : medioMovimientos + 1;
+        if (turno == NEGRAS) {
+            numeroJugada++;
+        }
+        turno = 1 - turno;
+    }
+
+    /**
+     * Revierte el último movimiento aplicado con {@link #hacer(int)}.
+     */
+    public void deshacer(int movimiento) {
+        turno = 1 - turno;
+        if (turno == NEGRAS) {
+            numeroJugada--;
+        }
+        int estado = historial[--ply];
+        int capturada = (estado & 0xF) - 1;
+        enroques = (estado >>> 4) & 0xF;
+        alPaso = ((estado >>> 8) & 0x7F) - 1;
+        medioMovimientos = estado >>> 15;
+
+        int origen = Movimiento.origen(movimiento);
+        int destino = Movimiento.destino(movimiento);
+        int especial = Movimiento.especial(movimiento);
+        int pieza = Movimiento.promocion(movimiento) != 0 ? turno * 6 + PEON : casillas[destino];
+
+        quitar(casillas[destino], destino);
+        poner(pieza, origen);
+
+        if (especial == Movimiento.AL_PASO) {
+            poner(capturada, turno == BLANCAS ? destino - 8 : destino + 8);
+        } else if (capturada != VACIA) {
+            poner(capturada, destino);
+        }
+
+        if (especial == Movimiento.ENROQUE) {
+            int torre = turno * 6 + TORRE;
+            if (destino > origen) {
+                quitar(torre, origen + 1);
+                poner(torre, origen + 3);
+            } else {
+                quitar(torre, origen - 1);
+                poner(torre, origen - 4);
+            }
+        }
+    }
+
+    /**
+     * @return la posición en FEN; la casilla al paso se escribe tras cualquier avance doble
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        for (int fila = 7; fila >= 0; fila--) {
+            int vacias = 0;
+            for (int columna = 0; columna < 8; columna++) {
+                int pieza = casillas[fila * 8 + columna];
+                if (pieza == VACIA) {
+                    vacias++;
+                } else {
+                    if (vacias > 0) {
+                        fen.append(vacias);
+                        vacias = 0;
+                    }
+                    fen.append(PIEZAS_FEN.charAt(pieza));
+                }
+            }
+            if (vacias > 0) {
+                fen.append(vacias);
+            }
+            if (fila > 0) {
+                fen.append('/');
+            }
+        }
+        fen.append(turno == BLANCAS ? " w " : " b ");
+        if (enroques == 0) {
+            fen.append('-');
+        } else {
+            if ((enroques & ENROQUE_CORTO_BLANCAS) != 0) {
+                fen.append('K');
+            }
+            if ((enroques & ENROQUE_LARGO_BLANCAS) != 0) {
+                fen.append('Q');
+            }
+            if ((enroques & ENROQUE_CORTO_NEGRAS) != 0) {
+                fen.append('k');
+            }
+            if ((enroques & ENROQUE_LARGO_NEGRAS) != 0) {
+                fen.append('q');
+            }
+        }
+        fen.append(' ').append(alPaso >= 0 ? Movimiento.nombreCasilla(alPaso) : "-");
+        fen.append(' ').append(medioMovimientos).append(' ').append(numeroJugada);
+        return fen.toString();
+    }
+}
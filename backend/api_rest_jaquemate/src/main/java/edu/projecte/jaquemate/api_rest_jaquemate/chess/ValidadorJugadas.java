@@ -0,0 +1,132 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Comprueba que una jugada (origen, destino y FEN) es coherente antes de
+ * guardarla. Se aceptan las dos convenciones que conviven en los datos: el FEN
+ * de la posición desde la que se juega (importaciones "fen,jugada") y el FEN
+ * resultante tras la jugada (el que envía el tablero de la aplicación).
+ */
+public final class ValidadorJugadas {
+
+    public enum Resultado {
+        /** La jugada es legal desde la posición del FEN. */
+        DESDE_POSICION,
+        /** La jugada es la que produjo la posición del FEN. */
+        HACIA_POSICION,
+        /** La jugada no encaja con la posición en ninguno de los dos sentidos. */
+        ILEGAL
+    }
+
+    private ValidadorJugadas() {
+    }
+
+    /**
+     * @param moveUciTo destino, con la pieza de promoción si la hay (e8q)
+     * @throws IllegalArgumentException si el FEN no es válido
+     */
+    public static Resultado validar(String fen, String moveUciFrom, String moveUciTo) {
+        Tablero tablero = Tablero.desdeFen(fen);
+        String uci = moveUciFrom + moveUciTo;
+        if (GeneradorMovimientos.buscarUci(tablero, uci) != Movimiento.NULO) {
+            return Resultado.DESDE_POSICION;
+        }
+        return GeneradorMovimientos.esMovimientoPrevio(tablero, uci) ? Resultado.HACIA_POSICION : Resultado.ILEGAL;
+    }
+
+    /**
+     * Completa una jugada importada desde la posición anterior: SAN y FEN tras
+     * la jugada, que es lo que guarda el tablero de la aplicación.
+     *
+     * @param moveUciTo destino, con la pieza de promoción si la hay (e8q)
+     * @return null si la jugada no es legal desde el FEN
+     * @throws IllegalArgumentException si el FEN no es válido
+     */
+    public static JugadaDerivada derivar(String fen, String moveUciFrom, String moveUciTo) {
+        Tablero tablero = Tablero.desdeFen(fen);
+        int movimiento = GeneradorMovimientos.buscarUci(tablero, moveUciFrom + moveUciTo);
+        if (movimiento == Movimiento.NULO) {
+            return null;
+        }
+        String san = NotacionSan.san(tablero, movimiento);
+        tablero.hacer(movimiento);
+        return new JugadaDerivada(san, tablero.toFen());
+    }
+
+    /**
+     * Posición desde la que se hizo la jugada, que es la clave del explorador
+     * de aperturas. Se toma, por este orden, del FEN previo si la jugada lleva
+     * desde él al FEN guardado, del propio FEN si la jugada es legal desde él
+     * y, si el FEN es el resultante, de repetir el PGN hasta la jugada
+     * anterior.
+     *
+     * @param fenPrevio FEN anterior a la jugada que envía el cliente; puede ser null
+     * @param pgn       partida hasta la jugada incluida; puede ser null
+     * @return el FEN anterior a la jugada, o null si no se puede determinar
+     */
+    public static String fenPrevio(String fen, String moveUciFrom, String moveUciTo, String fenPrevio,
+            String pgn) {
+        Long posicionHash = Zobrist.hashFenOrNull(fen);
+        if (posicionHash == null || moveUciFrom == null || moveUciTo == null) {
+            return null;
+        }
+        if (fenPrevio != null) {
+            try {
+                JugadaDerivada derivada = derivar(fenPrevio, moveUciFrom, moveUciTo);
+                if (derivada != null && Zobrist.hashFen(derivada.getFenResultante()) == posicionHash) {
+                    return fenPrevio;
+                }
+            } catch (IllegalArgumentException e) {
+                // Un FEN previo mal formado se descarta como si no se hubiera enviado
+            }
+        }
+        try {
+            if (validar(fen, moveUciFrom, moveUciTo) == Resultado.DESDE_POSICION) {
+                return fen;
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return pgn != null ? fenPrevioDesdePgn(pgn, moveUciFrom + moveUciTo, posicionHash) : null;
+    }
+
+    // La última jugada del PGN debe ser la indicada y llevar a la posición del FEN
+    private static String fenPrevioDesdePgn(String pgn, String uci, long posicionHash) {
+        PartidaPgn partida;
+        try {
+            partida = new LectorPgn(new BufferedReader(new StringReader(pgn))).siguiente();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (partida == null || partida.getJugadas().isEmpty()) {
+            return null;
+        }
+        try {
+            Tablero tablero = Tablero.desdeFen(partida.getFenInicial() != null
+                    ? partida.getFenInicial()
+                    : Tablero.FEN_INICIAL);
+            List<String> jugadas = partida.getJugadas();
+            for (String jugada : jugadas.subList(0, jugadas.size() - 1)) {
+                int movimiento = NotacionSan.buscar(tablero, jugada);
+                if (movimiento == Movimiento.NULO) {
+                    return null;
+                }
+                tablero.hacer(movimiento);
+            }
+            String previo = tablero.toFen();
+            int ultima = NotacionSan.buscar(tablero, jugadas.get(jugadas.size() - 1));
+            if (ultima == Movimiento.NULO || !Movimiento.toUci(ultima).startsWith(uci)) {
+                return null;
+            }
+            tablero.hacer(ultima);
+            return Zobrist.hashFen(tablero.toFen()) == posicionHash ? previo : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
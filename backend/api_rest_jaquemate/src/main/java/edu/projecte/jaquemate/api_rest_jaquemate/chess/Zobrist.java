@@ -0,0 +1,154 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Hash Zobrist de 64 bits de una posición FEN normalizada: colocación de las
+ * piezas, turno, derechos de enroque y captura al paso. Los contadores de
+ * medio movimiento y de jugada no forman parte del hash, de modo que dos FEN
+ * que solo difieren en ellos representan la misma posición.
+ */
+public final class Zobrist {
+
+    private static final String PIEZAS_FEN = "PNBRQKpnbrqk";
+
+    // Semilla fija: los hashes se persisten y deben ser estables entre arranques
+    private static final long SEMILLA = 0x4A41515545L;
+
+    private static final long[][] CLAVES_PIEZA = new long[12][64];
+    private static final long[] CLAVES_ENROQUE = new long[4];
+    private static final long[] CLAVES_AL_PASO = new long[8];
+    private static final long CLAVE_TURNO_NEGRAS;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEMILLA);
+        for (long[] clavesPieza : CLAVES_PIEZA) {
+            for (int casilla = 0; casilla < 64; casilla++) {
+                clavesPieza[casilla] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CLAVES_ENROQUE.length; i++) {
+            CLAVES_ENROQUE[i] = random.nextLong();
+        }
+        for (int i = 0; i < CLAVES_AL_PASO.length; i++) {
+            CLAVES_AL_PASO[i] = random.nextLong();
+        }
+        CLAVE_TURNO_NEGRAS = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param fen posición en notación FEN (los contadores son opcionales)
+     * @return hash de la posición normalizada
+     * @throws IllegalArgumentException si el FEN no es válido
+     */
+    public static long hashFen(String fen) {
+        if (fen == null || fen.isBlank()) {
+            throw new IllegalArgumentException("FEN vacío");
+        }
+        String[] campos = fen.trim().split("\\s+");
+        if (campos.length < 2) {
+            throw new IllegalArgumentException("FEN incompleto: " + fen);
+        }
+
+        int[] tablero = parsearColocacion(campos[0]);
+        long hash = 0L;
+        for (int casilla = 0; casilla < 64; casilla++) {
+            if (tablero[casilla] >= 0) {
+                hash ^= CLAVES_PIEZA[tablero[casilla]][casilla];
+            }
+        }
+
+        boolean turnoBlancas;
+        switch (campos[1]) {
+            case "w" -> turnoBlancas = true;
+            case "b" -> turnoBlancas = false;
+            default -> throw new IllegalArgumentException("Turno no válido: " + campos[1]);
+        }
+        if (!turnoBlancas) {
+            hash ^= CLAVE_TURNO_NEGRAS;
+        }
+
+        String enroques = campos.length > 2 ? campos[2] : "-";
+        if (!"-".equals(enroques)) {
+            for (char c : enroques.toCharArray()) {
+                int indice = "KQkq".indexOf(c);
+                if (indice < 0) {
+                    throw new IllegalArgumentException("Enroque no válido: " + enroques);
+                }
+                hash ^= CLAVES_ENROQUE[indice];
+            }
+        }
+
+        String alPaso = campos.length > 3 ? campos[3] : "-";
+        if (!"-".equals(alPaso)) {
+            int columna = parsearColumnaAlPaso(alPaso, turnoBlancas);
+            if (capturaAlPasoPosible(tablero, columna, turnoBlancas)) {
+                hash ^= CLAVES_AL_PASO[columna];
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * Variante para los caminos de escritura: un FEN no válido se guarda sin hash.
+     */
+    public static Long hashFenOrNull(String fen) {
+        try {
+            return hashFen(fen);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int[] parsearColocacion(String colocacion) {
+        int[] tablero = new int[64];
+        Arrays.fill(tablero, -1);
+
+        String[] filas = colocacion.split("/", -1);
+        if (filas.length != 8) {
+            throw new IllegalArgumentException("Colocación no válida: " + colocacion);
+        }
+        for (int i = 0; i < 8; i++) {
+            int fila = 7 - i;
+            int columna = 0;
+            for (char c : filas[i].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    columna += c - '0';
+                } else {
+                    int pieza = PIEZAS_FEN.indexOf(c);
+                    if (pieza < 0 || columna > 7) {
+                        throw new IllegalArgumentException("Colocación no válida: " + colocacion);
+                    }
+                    tablero[fila * 8 + columna] = pieza;
+                    columna++;
+                }
+            }
+            if (columna != 8) {
+                throw new IllegalArgumentException("Colocación no válida: " + colocacion);
+            }
+        }
+        return tablero;
+    }
+
+    private static int parsearColumnaAlPaso(String alPaso, boolean turnoBlancas) {
+        char filaEsperada = turnoBlancas ? '6' : '3';
+        if (alPaso.length() != 2 || alPaso.charAt(0) < 'a' || alPaso.charAt(0) > 'h'
+                || alPaso.charAt(1) != filaEsperada) {
+            throw new IllegalArgumentException("Casilla al paso no válida: " + alPaso);
+        }
+        return alPaso.charAt(0) - 'a';
+    }
+
+    // Como en Polyglot, la casilla al paso solo cuenta si algún peón puede capturar
+    private static boolean capturaAlPasoPosible(int[] tablero, int columna, boolean turnoBlancas) {
+        int fila = turnoBlancas ? 4 : 3;
+        int peon = PIEZAS_FEN.indexOf(turnoBlancas ? 'P' : 'p');
+        return (columna > 0 && tablero[fila * 8 + columna - 1] == peon)
+                || (columna < 7 && tablero[fila * 8 + columna + 1] == peon);
+    }
+}
@@ -0,0 +1,44 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Envuelve el DataSource con {@link BulkheadDataSource} cuando
+ * jaquemate.bulkhead.enabled está activo. Pensado para usarse junto con los
+ * hilos virtuales (spring.threads.virtual.enabled): miles de peticiones
+ * concurrentes cuestan pocos hilos y el pool se mantiene ocupado sin colas
+ * ilimitadas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jaquemate.bulkhead.enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    @Bean
+    static BeanPostProcessor bulkheadDataSourcePostProcessor(Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    int permisos = environment.getProperty("jaquemate.bulkhead.permisos", Integer.class,
+                            environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                    Duration esperaMaxima = environment.getProperty("jaquemate.bulkhead.espera-maxima",
+                            Duration.class, Duration.ofMillis(500));
+                    return new BulkheadDataSource(dataSource, permisos, esperaMaxima, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.exceptions.BulkheadSaturadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bulkhead de semáforo delante del pool: limita las conexiones en uso y, si la
+ * espera supera el presupuesto configurado, falla rápido con
+ * {@link BulkheadSaturadoException} en lugar de acumular hilos esperando al
+ * pool. El permiso se devuelve al cerrar la conexión.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Semaphore permisos;
+    private final long esperaMaximaNanos;
+    private final Timer espera;
+    private final Counter rechazos;
+
+    public BulkheadDataSource(DataSource dataSource, int permisos, Duration esperaMaxima, MeterRegistry registry) {
+        super(dataSource);
+        this.permisos = new Semaphore(permisos, true);
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.espera = Timer.builder("jaquemate.bulkhead.espera")
+                .description("Tiempo de espera por un permiso de conexión")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rechazos = Counter.builder("jaquemate.bulkhead.rechazos")
+                .description("Peticiones rechazadas por superar la espera máxima")
+                .register(registry);
+        Gauge.builder("jaquemate.bulkhead.cola", this.permisos, Semaphore::getQueueLength)
+                .description("Hilos esperando un permiso de conexión")
+                .register(registry);
+        Gauge.builder("jaquemate.bulkhead.disponibles", this.permisos, Semaphore::availablePermits)
+                .description("Permisos de conexión libres")
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirirPermiso();
+        try {
+            return envolver(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirirPermiso();
+        try {
+            return envolver(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    private void adquirirPermiso() throws SQLException {
+        long inicio = System.nanoTime();
+        boolean adquirido;
+        try {
+            adquirido = permisos.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando una conexión", e);
+        }
+        espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        if (!adquirido) {
+            rechazos.increment();
+            throw new BulkheadSaturadoException("BD saturada: no hay conexión disponible dentro del tiempo de espera");
+        }
+    }
+
+    // Proxy que devuelve el permiso una única vez al cerrar la conexión
+    private Connection envolver(Connection conexion) {
+        AtomicBoolean cerrada = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, metodo, args) -> {
+                    if ("close".equals(metodo.getName()) && cerrada.compareAndSet(false, true)) {
+                        try {
+                            return metodo.invoke(conexion, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            permisos.release();
+                        }
+                    }
+                    try {
+                        return metodo.invoke(conexion, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,19 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caché en memoria de las consultas de usuarios. El tamaño, el TTL y las
+ * estadísticas se configuran con spring.cache.caffeine.spec.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USUARIOS_POR_ID = "usuariosPorId";
+    public static final String USUARIOS_POR_NOMBRE = "usuariosPorNombre";
+    public static final String USUARIOS_POR_EMAIL = "usuariosPorEmail";
+    public static final String USUARIOS_EXISTE_POR_NOMBRE = "usuariosExistePorNombre";
+    public static final String USUARIOS_EXISTE_POR_EMAIL = "usuariosExistePorEmail";
+}
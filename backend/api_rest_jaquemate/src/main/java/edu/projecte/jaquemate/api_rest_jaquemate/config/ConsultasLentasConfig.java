@@ -0,0 +1,51 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Registro de consultas lentas: envuelve el DataSource con
+ * {@link ConsultasLentasDataSource} y publica {@link ConsultasLentasEndpoint}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jaquemate.consultas-lentas.enabled", havingValue = "true", matchIfMissing = true)
+public class ConsultasLentasConfig {
+
+    @Bean
+    RegistroConsultasLentas registroConsultasLentas(
+            @Value("${jaquemate.consultas-lentas.capacidad:256}") int capacidad) {
+        return new RegistroConsultasLentas(capacidad);
+    }
+
+    @Bean
+    static BeanPostProcessor consultasLentasDataSourcePostProcessor(Environment environment,
+            ObjectProvider<RegistroConsultasLentas> registro) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConsultasLentasDataSource)) {
+                    Duration umbral = environment.getProperty("jaquemate.consultas-lentas.umbral",
+                            Duration.class, Duration.ofMillis(200));
+                    return new ConsultasLentasDataSource(dataSource, registro.getObject(), umbral);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    ConsultasLentasEndpoint consultasLentasEndpoint(RegistroConsultasLentas registro, DataSource dataSource,
+            @Value("${jaquemate.consultas-lentas.explain.enabled:false}") boolean explainHabilitado,
+            @Value("${jaquemate.consultas-lentas.explain.timeout:30s}") Duration timeoutExplain) {
+        return new ConsultasLentasEndpoint(registro, dataSource, explainHabilitado, timeoutExplain);
+    }
+}
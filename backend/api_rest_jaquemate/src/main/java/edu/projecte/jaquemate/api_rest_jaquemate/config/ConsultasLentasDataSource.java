@@ -0,0 +1,184 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Mide cada sentencia ejecutada a través del DataSource y guarda en
+ * {@link RegistroConsultasLentas} las que superan el umbral, con la forma de
+ * sus parámetros y las filas devueltas o modificadas. Solo las sentencias
+ * lentas pagan el coste de contar filas del ResultSet.
+ */
+public class ConsultasLentasDataSource extends DelegatingDataSource {
+
+    private final RegistroConsultasLentas registro;
+    private final long umbralNanos;
+
+    public ConsultasLentasDataSource(DataSource dataSource, RegistroConsultasLentas registro, Duration umbral) {
+        super(dataSource);
+        this.registro = registro;
+        this.umbralNanos = umbral.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolverConexion(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolverConexion(super.getConnection(username, password));
+    }
+
+    private Connection envolverConexion(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, metodo, args) -> {
+                    Object resultado = invocar(conexion, metodo, args);
+                    return switch (metodo.getName()) {
+                        case "prepareStatement" -> envolverSentencia(resultado, PreparedStatement.class, (String) args[0]);
+                        case "prepareCall" -> envolverSentencia(resultado, CallableStatement.class, (String) args[0]);
+                        case "createStatement" -> envolverSentencia(resultado, Statement.class, null);
+                        default -> resultado;
+                    };
+                });
+    }
+
+    private Object envolverSentencia(Object sentencia, Class<?> tipo, String sql) {
+        return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo },
+                new SeguimientoSentencia((Statement) sentencia, sql));
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class SeguimientoSentencia implements InvocationHandler {
+
+        private final Statement sentencia;
+        private String sql;
+        // Último valor asignado a cada parámetro, por índice
+        private final TreeMap<Integer, Object> parametros = new TreeMap<>();
+        private int lotes;
+
+        private SeguimientoSentencia(Statement sentencia, String sql) {
+            this.sentencia = sentencia;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nombre = metodo.getName();
+            if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                parametros.put(indice, nombre.equals("setNull") ? null : args[1]);
+            } else if (nombre.equals("clearParameters")) {
+                parametros.clear();
+            } else if (nombre.equals("addBatch")) {
+                lotes++;
+            } else if (nombre.equals("clearBatch")) {
+                lotes = 0;
+            } else if (nombre.startsWith("execute")) {
+                return ejecutar(metodo, args);
+            }
+            return invocar(sentencia, metodo, args);
+        }
+
+        private Object ejecutar(Method metodo, Object[] args) throws Throwable {
+            if (args != null && args.length > 0 && args[0] instanceof String sqlDirecto) {
+                sql = sqlDirecto;
+            }
+            long inicio = System.nanoTime();
+            Object resultado = invocar(sentencia, metodo, args);
+            long duracion = System.nanoTime() - inicio;
+            if (duracion < umbralNanos || sql == null || sql.regionMatches(true, 0, "EXPLAIN", 0, 7)) {
+                lotes = 0;
+                return resultado;
+            }
+
+            if (resultado instanceof ResultSet resultSet) {
+                // Las filas se conocen al cerrar el ResultSet; el tiempo de lectura también cuenta
+                resultado = envolverResultSet(resultSet, inicio);
+            } else {
+                registrar(duracion, filasModificadas(resultado));
+            }
+            lotes = 0;
+            return resultado;
+        }
+
+        private ResultSet envolverResultSet(ResultSet resultSet, long inicio) {
+            String sqlConsulta = sql;
+            List<String> forma = forma();
+            List<Object> valores = new ArrayList<>(parametros.values());
+            int lotesConsulta = lotes;
+            long[] filas = { 0 };
+            boolean[] registrado = { false };
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, (proxy, metodo, args) -> {
+                        Object resultado = invocar(resultSet, metodo, args);
+                        if ("next".equals(metodo.getName()) && Boolean.TRUE.equals(resultado)) {
+                            filas[0]++;
+                        } else if ("close".equals(metodo.getName()) && !registrado[0]) {
+                            registrado[0] = true;
+                            registro.registrar(sqlConsulta, forma, valores, lotesConsulta,
+                                    System.nanoTime() - inicio, filas[0]);
+                        }
+                        return resultado;
+                    });
+        }
+
+        private void registrar(long duracion, long filas) {
+            registro.registrar(sql, forma(), new ArrayList<>(parametros.values()), lotes, duracion, filas);
+        }
+
+        private List<String> forma() {
+            List<String> forma = new ArrayList<>(parametros.size());
+            for (Object valor : parametros.values()) {
+                forma.add(valor == null ? "null" : valor.getClass().getSimpleName());
+            }
+            return forma;
+        }
+
+        private long filasModificadas(Object resultado) throws SQLException {
+            if (resultado instanceof Number filas) {
+                return filas.longValue();
+            }
+            if (resultado instanceof int[] porLote) {
+                long total = 0;
+                for (int filas : porLote) {
+                    total += Math.max(filas, 0);
+                }
+                return total;
+            }
+            if (resultado instanceof long[] porLote) {
+                long total = 0;
+                for (long filas : porLote) {
+                    total += Math.max(filas, 0);
+                }
+                return total;
+            }
+            if (Boolean.FALSE.equals(resultado)) {
+                return sentencia.getUpdateCount();
+            }
+            return -1;
+        }
+    }
+}
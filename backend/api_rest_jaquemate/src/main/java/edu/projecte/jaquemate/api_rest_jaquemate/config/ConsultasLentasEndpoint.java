@@ -0,0 +1,134 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ConsultaLenta;
+
+/**
+ * /actuator/consultaslentas: lista las sentencias más lentas del buffer y,
+ * si jaquemate.consultas-lentas.explain.enabled está activo, repite una
+ * consulta de lectura con EXPLAIN (ANALYZE, BUFFERS) usando sus parámetros
+ * originales (POST /actuator/consultaslentas/{id}). El EXPLAIN se ejecuta en
+ * una transacción de solo lectura que se deshace al terminar. Las consultas
+ * sobre usuarios no guardan sus valores y no se pueden explicar. El actuator
+ * escucha en su propio puerto (management.server.port), fuera del de la API.
+ */
+@Endpoint(id = "consultaslentas")
+public class ConsultasLentasEndpoint {
+
+    private static final int LIMITE_POR_DEFECTO = 20;
+
+    private final RegistroConsultasLentas registro;
+    private final DataSource dataSource;
+    private final boolean explainHabilitado;
+    private final Duration timeoutExplain;
+
+    public ConsultasLentasEndpoint(RegistroConsultasLentas registro, DataSource dataSource,
+            boolean explainHabilitado, Duration timeoutExplain) {
+        this.registro = registro;
+        this.dataSource = dataSource;
+        this.explainHabilitado = explainHabilitado;
+        this.timeoutExplain = timeoutExplain;
+    }
+
+    @ReadOperation
+    public List<ConsultaLenta> peores(@Nullable Integer limite) {
+        return registro.peores(limite != null && limite > 0 ? limite : LIMITE_POR_DEFECTO);
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<ConsultaLenta> consulta(@Selector long id) {
+        ConsultaLenta consulta = registro.buscar(id);
+        return consulta != null
+                ? new WebEndpointResponse<>(consulta)
+                : new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> explicar(@Selector long id) {
+        if (!explainHabilitado) {
+            return new WebEndpointResponse<>(
+                    Map.of("message", "EXPLAIN deshabilitado (jaquemate.consultas-lentas.explain.enabled)"), 403);
+        }
+        ConsultaLenta consulta = registro.buscar(id);
+        if (consulta == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (!esConsultaDeLectura(consulta.getSql())) {
+            return new WebEndpointResponse<>(
+                    Map.of("message", "Solo se pueden explicar consultas SELECT"),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (consulta.getValores() == null) {
+            return new WebEndpointResponse<>(
+                    Map.of("message", "La consulta no guarda sus valores (tabla usuarios)"),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        try {
+            return new WebEndpointResponse<>(Map.of("sql", consulta.getSql(), "plan", ejecutarExplain(consulta)));
+        } catch (SQLException e) {
+            return new WebEndpointResponse<>(Map.of("message", "Error al ejecutar EXPLAIN: " + e.getMessage()),
+                    WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @DeleteOperation
+    public void limpiar() {
+        registro.limpiar();
+    }
+
+    private List<String> ejecutarExplain(ConsultaLenta consulta) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (Connection conexion = dataSource.getConnection()) {
+            boolean autoCommit = conexion.getAutoCommit();
+            conexion.setAutoCommit(false);
+            conexion.setReadOnly(true);
+            try {
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("SET LOCAL statement_timeout = " + timeoutExplain.toMillis());
+                }
+                try (PreparedStatement explain = conexion
+                        .prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + consulta.getSql())) {
+                    List<Object> valores = consulta.getValores();
+                    for (int i = 0; i < valores.size(); i++) {
+                        explain.setObject(i + 1, valores.get(i));
+                    }
+                    try (ResultSet filas = explain.executeQuery()) {
+                        while (filas.next()) {
+                            plan.add(filas.getString(1));
+                        }
+                    }
+                }
+            } finally {
+                conexion.rollback();
+                conexion.setReadOnly(false);
+                conexion.setAutoCommit(autoCommit);
+            }
+        }
+        return plan;
+    }
+
+    private static boolean esConsultaDeLectura(String sql) {
+        String inicio = sql.stripLeading().toUpperCase(Locale.ROOT);
+        return inicio.startsWith("SELECT") || inicio.startsWith("WITH");
+    }
+}
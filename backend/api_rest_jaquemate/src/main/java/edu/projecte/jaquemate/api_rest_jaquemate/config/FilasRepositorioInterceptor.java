@@ -0,0 +1,105 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.config;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cuenta las filas leídas y escritas por cada método de un repositorio Spring
+ * Data (jaquemate.repositorio.filas, etiquetado por repositorio, método y
+ * operación). El tiempo de cada invocación ya lo mide Spring Boot en
+ * spring.data.repository.invocations.
+ */
+class FilasRepositorioInterceptor implements MethodInterceptor {
+
+    private final String repositorio;
+    private final MeterRegistry registry;
+    private final Map<Method, Counter> contadores = new ConcurrentHashMap<>();
+
+    FilasRepositorioInterceptor(Class<?> repositorio, MeterRegistry registry) {
+        this.repositorio = repositorio.getSimpleName();
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object resultado = invocation.proceed();
+        Method metodo = invocation.getMethod();
+        Counter contador = contadores.computeIfAbsent(metodo, this::crearContador);
+
+        if (esEscritura(metodo)) {
+            contador.increment(filasEscritas(resultado, invocation.getArguments()));
+        } else if (resultado instanceof Stream<?> stream) {
+            // Los streams se cuentan según los consume quien los pidió
+            return stream.peek(fila -> contador.increment());
+        } else {
+            contador.increment(filasLeidas(resultado));
+        }
+        return resultado;
+    }
+
+    private Counter crearContador(Method metodo) {
+        return Counter.builder("jaquemate.repositorio.filas")
+                .description("Filas devueltas o modificadas por los métodos de repositorio")
+                .tag("repository", repositorio)
+                .tag("method", metodo.getName())
+                .tag("operacion", esEscritura(metodo) ? "escritura" : "lectura")
+                .register(registry);
+    }
+
+    private static boolean esEscritura(Method metodo) {
+        String nombre = metodo.getName();
+        return nombre.startsWith("save") || nombre.startsWith("delete")
+                || AnnotatedElementUtils.hasAnnotation(metodo, Modifying.class);
+    }
+
+    private static long filasEscritas(Object resultado, Object[] argumentos) {
+        if (resultado instanceof Number filas) {
+            return filas.longValue();
+        }
+        if (resultado instanceof Collection<?> entidades) {
+            return entidades.size();
+        }
+        if (resultado != null) {
+            return 1;
+        }
+        // delete(entidad), deleteById(id), deleteAll(entidades)
+        if (argumentos.length == 1 && argumentos[0] instanceof Iterable<?> entidades) {
+            long total = 0;
+            for (Object entidad : entidades) {
+                total++;
+            }
+            return total;
+        }
+        return argumentos.length == 0 ? 0 : 1;
+    }
+
+    private static long filasLeidas(Object resultado) {
+        if (resultado instanceof Collection<?> filas) {
+            return filas.size();
+        }
+        if (resultado instanceof Slice<?> pagina) {
+            return pagina.getNumberOfElements();
+        }
+        if (resultado instanceof Optional<?> fila) {
+            return fila.isPresent() ? 1 : 0;
+        }
+        // count/exists devuelven un agregado, no filas
+        if (resultado == null || resultado instanceof Number || resultado instanceof Boolean) {
+            return 0;
+        }
+        return 1;
+    }
+}
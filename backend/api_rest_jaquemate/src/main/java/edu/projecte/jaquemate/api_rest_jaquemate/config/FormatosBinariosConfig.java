@@ -0,0 +1,47 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * Respuestas en CBOR (application/cbor) y Smile (application/x-jackson-smile)
+ * cuando el cliente las pide en Accept. Los ObjectMapper salen del mismo
+ * Jackson2ObjectMapperBuilder de Spring Boot que el JSON, así que fechas y
+ * opciones de serialización coinciden en los tres formatos. Estos beans
+ * sustituyen a los convertidores por defecto del mismo tipo.
+ */
+@Configuration
+public class FormatosBinariosConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(crearCborFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(crearSmileFactory()).build());
+    }
+
+    public static CBORFactory crearCborFactory() {
+        return new CBORFactory();
+    }
+
+    /**
+     * Smile puede sustituir los textos cortos repetidos (hasta 64 bytes) por una
+     * referencia al primero: en un listado el nombre del usuario y la mayoría
+     * de FEN de apertura se repiten fila tras fila.
+     */
+    public static SmileFactory crearSmileFactory() {
+        return SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Formatos de respuesta negociables por Accept y el ObjectMapper que usa Spring
+ * MVC para cada uno. Lo necesitan las respuestas que no pasan por los
+ * convertidores (exportaciones en streaming) y los ETag, que deben distinguir
+ * la representación.
+ */
+@Component
+public class FormatosRespuesta {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    // Orden de preferencia cuando Accept admite varios: sin Accept o con */* se responde JSON
+    public static final List<MediaType> SOPORTADOS = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private final Map<MediaType, ObjectMapper> mappers = new HashMap<>();
+
+    public FormatosRespuesta(HttpMessageConverters httpMessageConverters) {
+        for (MediaType formato : SOPORTADOS) {
+            for (HttpMessageConverter<?> converter : httpMessageConverters.getConverters()) {
+                if (converter instanceof AbstractJackson2HttpMessageConverter jackson
+                        && jackson.getSupportedMediaTypes().contains(formato)) {
+                    mappers.putIfAbsent(formato, jackson.getObjectMapper());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return el formato soportado preferido por la cabecera Accept, o null si
+     *         no admite ninguno
+     */
+    public static MediaType negociar(String accept) {
+        List<MediaType> aceptados;
+        try {
+            aceptados = accept == null || accept.isBlank()
+                    ? List.of(MediaType.ALL)
+                    : new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        // Ordena por calidad (q) y, a igual calidad, por especificidad
+        MimeTypeUtils.sortBySpecificity(aceptados);
+        for (MediaType aceptado : aceptados) {
+            for (MediaType formato : SOPORTADOS) {
+                if (aceptado.isCompatibleWith(formato) && aceptado.getQualityValue() > 0) {
+                    return formato;
+                }
+            }
+        }
+        return null;
+    }
+
+    public ObjectMapper getObjectMapper(MediaType formato) {
+        return mappers.get(formato);
+    }
+}
@@ -0,0 +1,35 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Añade {@link FilasRepositorioInterceptor} al proxy de todos los repositorios
+ * Spring Data, del mismo modo que Spring Boot engancha sus métricas de
+ * invocación.
+ */
+@Configuration
+public class MetricasRepositorioConfig {
+
+    @Bean
+    static BeanPostProcessor filasRepositorioPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(factory -> factory
+                            .addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> proxyFactory
+                                    .addAdvice(new FilasRepositorioInterceptor(
+                                            repositoryInformation.getRepositoryInterface(),
+                                            meterRegistry.getObject()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
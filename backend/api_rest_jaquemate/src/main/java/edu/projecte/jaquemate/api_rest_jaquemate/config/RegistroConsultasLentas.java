@@ -0,0 +1,73 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.config;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ConsultaLenta;
+
+/**
+ * Buffer circular con las últimas sentencias que superaron el umbral. Al
+ * llenarse, cada registro nuevo sustituye al más antiguo.
+ */
+public class RegistroConsultasLentas {
+
+    // El login y el registro enlazan la contraseña en claro: de usuarios no se guardan valores
+    private static final Pattern TABLA_USUARIOS = Pattern.compile("\\busuarios\\b", Pattern.CASE_INSENSITIVE);
+
+    private final AtomicReferenceArray<ConsultaLenta> consultas;
+    private final AtomicLong siguiente = new AtomicLong();
+
+    public RegistroConsultasLentas(int capacidad) {
+        this.consultas = new AtomicReferenceArray<>(capacidad);
+    }
+
+    public void registrar(String sql, List<String> parametros, List<Object> valores, int lotes,
+            long duracionNanos, long filas) {
+        long id = siguiente.incrementAndGet();
+        List<Object> valoresGuardados = TABLA_USUARIOS.matcher(sql).find() ? null : valores;
+        consultas.set(posicion(id), new ConsultaLenta(id, sql, parametros, lotes, duracionNanos / 1_000_000.0,
+                filas, LocalDateTime.now(), valoresGuardados));
+    }
+
+    /**
+     * @param limite máximo de consultas a devolver
+     * @return las consultas del buffer ordenadas de más a menos lenta
+     */
+    public List<ConsultaLenta> peores(int limite) {
+        List<ConsultaLenta> resultado = new ArrayList<>(consultas.length());
+        for (int i = 0; i < consultas.length(); i++) {
+            ConsultaLenta consulta = consultas.get(i);
+            if (consulta != null) {
+                resultado.add(consulta);
+            }
+        }
+        resultado.sort(Comparator.comparingDouble(ConsultaLenta::getDuracionMs).reversed());
+        return resultado.subList(0, Math.min(limite, resultado.size()));
+    }
+
+    /**
+     * @return la consulta con ese id, o null si ya se ha sobrescrito
+     */
+    public ConsultaLenta buscar(long id) {
+        if (id <= 0) {
+            return null;
+        }
+        ConsultaLenta consulta = consultas.get(posicion(id));
+        return consulta != null && consulta.getId() == id ? consulta : null;
+    }
+
+    public void limpiar() {
+        for (int i = 0; i < consultas.length(); i++) {
+            consultas.set(i, null);
+        }
+    }
+
+    private int posicion(long id) {
+        return (int) ((id - 1) % consultas.length());
+    }
+}
@@ -2,6 +2,7 @@ package edu.projecte.jaquemate.api_rest_jaquemate.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -20,6 +21,8 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins(allowedOrigins)
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
                 .allowedHeaders("*")
+                // El frontend lee el ETag para enviarlo en If-None-Match
+                .exposedHeaders(HttpHeaders.ETAG)
                 .allowCredentials(true)
                 .maxAge(3600);
     }
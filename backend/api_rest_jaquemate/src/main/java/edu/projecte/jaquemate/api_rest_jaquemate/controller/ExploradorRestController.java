@@ -0,0 +1,32 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ExploradorRespuesta;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.ExploradorService;
+
+@RestController
+@RequestMapping("/api/v1/explorer")
+public class ExploradorRestController {
+
+    private static final int LIMITE_MAXIMO = 50;
+
+    private final ExploradorService exploradorService;
+
+    public ExploradorRestController(ExploradorService exploradorService) {
+        this.exploradorService = exploradorService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ExploradorRespuesta> getMovimientos(
+            @RequestParam String fen,
+            @RequestParam(defaultValue = "10") int limite) {
+
+        int limiteAcotado = Math.min(Math.max(limite, 1), LIMITE_MAXIMO);
+        return ResponseEntity.ok(exploradorService.getMovimientos(fen, limiteAcotado));
+    }
+}
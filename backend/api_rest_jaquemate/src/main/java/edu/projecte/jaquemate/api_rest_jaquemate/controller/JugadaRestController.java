@@ -1,13 +1,28 @@
 package edu.projecte.jaquemate.api_rest_jaquemate.controller;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.StringWriter;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -17,18 +32,36 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.config.FormatosRespuesta;
+import edu.projecte.jaquemate.api_rest_jaquemate.helper.CsvHelper;
+import edu.projecte.jaquemate.api_rest_jaquemate.helper.EtagHelper;
 import edu.projecte.jaquemate.api_rest_jaquemate.helper.PaginationHelper;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoImportacion;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoListado;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.FormatoImportacion;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaCreate;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaCsvImport;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaInfo;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaList;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ListadoCursorRespuesta;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ListadoRespuesta;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.PaginaCursorDto;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.PaginaDto;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ResultadoBorrado;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ResultadoImportacion;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.ImportacionService;
 import edu.projecte.jaquemate.api_rest_jaquemate.services.JugadaService;
 import jakarta.validation.Valid;
 
@@ -36,20 +69,57 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/v1/jugadas")
 public class JugadaRestController {
 
-    private final JugadaService jugadaService;
+    private static final int TAMANO_BUFFER_EXPORTACION = 64 * 1024;
+
+    private static final Map<MediaType, String> EXTENSIONES = Map.of(
+            MediaType.APPLICATION_JSON, "json",
+            MediaType.APPLICATION_CBOR, "cbor",
+            FormatosRespuesta.APPLICATION_SMILE, "sml");
 
-    public JugadaRestController(JugadaService jugadaService) {
+    private final JugadaService jugadaService;
+    private final ImportacionService importacionService;
+    private final FormatosRespuesta formatosRespuesta;
+    private final CacheControl cacheControl;
+
+    /*
+     * El navegador revalida siempre (max-age 0) y un proxy compartido puede
+     * servir la misma respuesta durante s-maxage, absorbiendo los refrescos
+     * repetidos del tablero. Con el token obligatorio las respuestas dependen
+     * del usuario y solo se guardan en la caché privada.
+     */
+    public JugadaRestController(JugadaService jugadaService, ImportacionService importacionService,
+            FormatosRespuesta formatosRespuesta,
+            @Value("${jaquemate.http-cache.max-age:0s}") Duration maxAge,
+            @Value("${jaquemate.http-cache.s-maxage:5s}") Duration sMaxAge,
+            @Value("${jaquemate.auth.obligatorio:false}") boolean authObligatorio) {
         this.jugadaService = jugadaService;
+        this.importacionService = importacionService;
+        this.formatosRespuesta = formatosRespuesta;
+        CacheControl cache = CacheControl.maxAge(maxAge).mustRevalidate();
+        this.cacheControl = authObligatorio ? cache.cachePrivate() : cache.cachePublic().sMaxAge(sMaxAge);
     }
 
     @GetMapping
     public ResponseEntity<ListadoRespuesta<JugadaList>> getAllJugadas(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt,desc") String[] sort) {
+            @RequestParam(defaultValue = "createdAt,desc") String[] sort,
+            WebRequest request) {
+
+        /*
+         * Solo las páginas con OFFSET: el resumen del ETag (recorrido solo de
+         * índice) da también el total, así que la página no repite el COUNT, y
+         * el 304 ahorra además la consulta de la página y el mapeo.
+         */
+        EstadoListado estado = jugadaService.getEstadoListado(null);
+        String etag = EtagHelper.etagListado(estado,
+                FormatosRespuesta.negociar(request.getHeader(HttpHeaders.ACCEPT)));
+        if (request.checkNotModified(etag)) {
+            return noModificado(etag);
+        }
 
         Pageable pageable = PaginationHelper.createPageable(page, size, sort);
-        PaginaDto<JugadaList> paginaJugadaList = jugadaService.findAll(pageable);
+        PaginaDto<JugadaList> paginaJugadaList = jugadaService.findAll(pageable, estado.getTotal());
 
         ListadoRespuesta<JugadaList> response = new ListadoRespuesta<>(
                 paginaJugadaList.getNumber(),
@@ -58,7 +128,23 @@ public class JugadaRestController {
                 paginaJugadaList.getTotalPages(),
                 paginaJugadaList.getContent());
 
-        return ResponseEntity.ok(response);
+        return conCache(etag).body(response);
+    }
+
+    /*
+     * Con ?after= (vacío para la primera página) el listado se recorre por
+     * cursor sobre (createdAt, id) descendente, sin OFFSET ni COUNT. Es el único
+     * orden posible: cualquier otro sort responde 400.
+     */
+    @GetMapping(params = "after")
+    public ResponseEntity<ListadoCursorRespuesta<JugadaList>> getAllJugadasTrasCursor(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String[] sort) {
+        PaginationHelper.comprobarOrdenCursor(sort);
+        PaginaCursorDto<JugadaList> paginaCursor = jugadaService.findAllTrasCursor(
+                PaginationHelper.decodificarCursor(after), PaginationHelper.limitarTamano(size));
+        return conCache().body(crearListadoCursor(paginaCursor));
     }
 
     @GetMapping("/usuario/{usuarioId}")
@@ -66,10 +152,19 @@ public class JugadaRestController {
             @PathVariable Long usuarioId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt,desc") String[] sort) {
+            @RequestParam(defaultValue = "createdAt,desc") String[] sort,
+            WebRequest request) {
+
+        EstadoListado estado = jugadaService.getEstadoListado(usuarioId);
+        String etag = EtagHelper.etagListado(estado,
+                FormatosRespuesta.negociar(request.getHeader(HttpHeaders.ACCEPT)));
+        if (request.checkNotModified(etag)) {
+            return noModificado(etag);
+        }
 
         Pageable pageable = PaginationHelper.createPageable(page, size, sort);
-        PaginaDto<JugadaList> paginaJugadaList = jugadaService.findByUsuarioId(usuarioId, pageable);
+        PaginaDto<JugadaList> paginaJugadaList = jugadaService.findByUsuarioId(usuarioId, pageable,
+                estado.getTotal());
 
         ListadoRespuesta<JugadaList> response = new ListadoRespuesta<>(
                 paginaJugadaList.getNumber(),
@@ -78,7 +173,19 @@ public class JugadaRestController {
                 paginaJugadaList.getTotalPages(),
                 paginaJugadaList.getContent());
 
-        return ResponseEntity.ok(response);
+        return conCache(etag).body(response);
+    }
+
+    @GetMapping(path = "/usuario/{usuarioId}", params = "after")
+    public ResponseEntity<ListadoCursorRespuesta<JugadaList>> getJugadasByUsuarioIdTrasCursor(
+            @PathVariable Long usuarioId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String[] sort) {
+        PaginationHelper.comprobarOrdenCursor(sort);
+        PaginaCursorDto<JugadaList> paginaCursor = jugadaService.findByUsuarioIdTrasCursor(usuarioId,
+                PaginationHelper.decodificarCursor(after), PaginationHelper.limitarTamano(size));
+        return conCache().body(crearListadoCursor(paginaCursor));
     }
 
     @GetMapping("/jugador/{nombre}")
@@ -86,10 +193,20 @@ public class JugadaRestController {
             @PathVariable String nombre,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt,desc") String[] sort) {
+            @RequestParam(defaultValue = "createdAt,desc") String[] sort,
+            @RequestParam(defaultValue = "false") boolean ignorarMayusculas,
+            WebRequest request) {
+
+        EstadoListado estado = jugadaService.getEstadoListadoPorNombre(nombre, ignorarMayusculas);
+        String etag = EtagHelper.etagListado(estado,
+                FormatosRespuesta.negociar(request.getHeader(HttpHeaders.ACCEPT)));
+        if (request.checkNotModified(etag)) {
+            return noModificado(etag);
+        }
 
         Pageable pageable = PaginationHelper.createPageable(page, size, sort);
-        PaginaDto<JugadaList> paginaJugadaList = jugadaService.findByUsuarioNombre(nombre, pageable);
+        PaginaDto<JugadaList> paginaJugadaList = jugadaService.findByUsuarioNombre(nombre, ignorarMayusculas,
+                pageable, estado.getTotal());
 
         ListadoRespuesta<JugadaList> response = new ListadoRespuesta<>(
                 paginaJugadaList.getNumber(),
@@ -98,13 +215,58 @@ public class JugadaRestController {
                 paginaJugadaList.getTotalPages(),
                 paginaJugadaList.getContent());
 
-        return ResponseEntity.ok(response);
+        return conCache(etag).body(response);
+    }
+
+    @GetMapping(path = "/jugador/{nombre}", params = "after")
+    public ResponseEntity<ListadoCursorRespuesta<JugadaList>> getJugadasByJugadorNombreTrasCursor(
+            @PathVariable String nombre,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String[] sort,
+            @RequestParam(defaultValue = "false") boolean ignorarMayusculas) {
+        PaginationHelper.comprobarOrdenCursor(sort);
+        PaginaCursorDto<JugadaList> paginaCursor = jugadaService.findByUsuarioNombreTrasCursor(nombre,
+                ignorarMayusculas, PaginationHelper.decodificarCursor(after), PaginationHelper.limitarTamano(size));
+        return conCache().body(crearListadoCursor(paginaCursor));
+    }
+
+    private ListadoCursorRespuesta<JugadaList> crearListadoCursor(PaginaCursorDto<JugadaList> paginaCursor) {
+        return new ListadoCursorRespuesta<>(
+                paginaCursor.getSize(),
+                paginaCursor.getContent(),
+                PaginationHelper.codificarCursor(paginaCursor.getSiguiente()));
+    }
+
+    private <T> ResponseEntity<T> noModificado(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    // La misma URL puede responder JSON, CBOR o Smile según Accept
+    private ResponseEntity.BodyBuilder conCache() {
+        return ResponseEntity.ok().cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT);
+    }
+
+    private ResponseEntity.BodyBuilder conCache(String etag) {
+        return conCache().eTag(etag);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<JugadaInfo> getJugadaById(@PathVariable Long id) {
+    public ResponseEntity<JugadaInfo> getJugadaById(@PathVariable Long id, WebRequest request) {
+        Optional<Long> version = jugadaService.findVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        String etag = EtagHelper.etagJugada(id, version.get(),
+                FormatosRespuesta.negociar(request.getHeader(HttpHeaders.ACCEPT)));
+        if (request.checkNotModified(etag)) {
+            return noModificado(etag);
+        }
+
         Optional<JugadaInfo> jugadaInfo = jugadaService.findById(id);
-        return jugadaInfo.map(ResponseEntity::ok)
+        return jugadaInfo.map(info -> conCache(etag).body(info))
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
@@ -116,50 +278,187 @@ public class JugadaRestController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> eliminarJugada(@PathVariable Long id) {
-        try {
-            Optional<JugadaInfo> jugadaExistente = jugadaService.findById(id);
+        if (!jugadaService.eliminarJugada(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.noContent().build();
+    }
 
-            if (jugadaExistente.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-            }
+    /*
+     * Borrado masivo por ids (POST porque DELETE con cuerpo no lo admiten
+     * todos los clientes). Los ids que no existen no cuentan en eliminadas.
+     */
+    @PostMapping("/eliminar")
+    public ResponseEntity<ResultadoBorrado> eliminarJugadas(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(jugadaService.eliminarJugadas(ids));
+    }
 
-            jugadaService.eliminarJugada(id);
-            return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    @DeleteMapping("/usuario/{usuarioId}")
+    public ResponseEntity<ResultadoBorrado> eliminarJugadasDeUsuario(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        return ResponseEntity.ok(jugadaService.eliminarJugadasDeUsuario(usuarioId, desde, hasta));
+    }
+
+    // Sin usuario el rango es obligatorio: DELETE /jugadas sin parámetros no vacía la tabla
+    @DeleteMapping
+    public ResponseEntity<ResultadoBorrado> eliminarJugadasEntre(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        return ResponseEntity.ok(jugadaService.eliminarJugadasEntre(desde, hasta));
     }
 
     @GetMapping("/exportar/csv")
-    public ResponseEntity<String> exportarCsv() {
-        List<JugadaList> jugadas = jugadaService.exportarTodas();
-
-        StringWriter writer = new StringWriter();
-        writer.append("usuario,fen,move_uci,move_san,created_at\n");
-
-        for (JugadaList jugada : jugadas) {
-            writer.append(escapeCsv(jugada.getUsuarioNombre())).append(",");
-            writer.append(escapeCsv(jugada.getFen())).append(",");
-            writer.append(escapeCsv(jugada.getMoveUci())).append(",");
-            writer.append(escapeCsv(jugada.getMoveSan())).append(",");
-            writer.append(jugada.getCreatedAt() != null ? jugada.getCreatedAt().toString() : "").append("\n");
-        }
+    public ResponseEntity<StreamingResponseBody> exportarCsv(
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        // Las filas se escriben bloque a bloque directamente en la respuesta
+        StreamingResponseBody cuerpo = crearCuerpoExportacion(gzip, writer -> {
+            writer.append("usuario,fen,move_uci,move_san,created_at\n");
+            jugadaService.exportarJugadas(usuarioId, desde, hasta, bloque -> {
+                try {
+                    for (JugadaList jugada : bloque) {
+                        escribirLineaCsv(writer, jugada);
+                    }
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        });
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("text/csv"));
-        headers.setContentDispositionFormData("attachment", "jugadas_export.csv");
+        if (gzip) {
+            headers.setContentType(MediaType.parseMediaType("application/gzip"));
+            headers.setContentDispositionFormData("attachment", "jugadas_export.csv.gz");
+        } else {
+            headers.setContentType(MediaType.parseMediaType("text/csv"));
+            headers.setContentDispositionFormData("attachment", "jugadas_export.csv");
+        }
 
-        return new ResponseEntity<>(writer.toString(), headers, HttpStatus.OK);
+        return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
     }
 
-    private String escapeCsv(String value) {
-        if (value == null) {
-            return "";
+    /*
+     * Mismas filas y filtros que /exportar/csv, como un array de JugadaList en
+     * el formato pedido en Accept (JSON, CBOR o Smile). Igual que el CSV, cada
+     * bloque leído de la BD se envía sin esperar al resto.
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        MediaType formato = FormatosRespuesta.negociar(accept);
+        if (formato == null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
         }
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
+        // Sin FLUSH_AFTER_WRITE_VALUE el generador solo vacía su buffer al llenarse o al final de cada bloque
+        ObjectWriter escritorJugada = formatosRespuesta.getObjectMapper(formato)
+                .writerFor(JugadaList.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody cuerpo = outputStream -> {
+            try (JsonGenerator generador = escritorJugada.createGenerator(outputStream)) {
+                generador.writeStartArray();
+                jugadaService.exportarJugadas(usuarioId, desde, hasta, bloque -> {
+                    try {
+                        for (JugadaList jugada : bloque) {
+                            escritorJugada.writeValue(generador, jugada);
+                        }
+                        generador.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generador.writeEndArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(formato);
+        headers.setVary(List.of(HttpHeaders.ACCEPT));
+        headers.setContentDispositionFormData("attachment", "jugadas_export." + EXTENSIONES.get(formato));
+        return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
+    }
+
+    /*
+     * Partidas regeneradas a partir de las jugadas del usuario. Con fen solo se
+     * exportan las partidas que pasan por esa posición. La respuesta empieza
+     * en cuanto se llena el primer buffer, sin esperar al resto.
+     */
+    @GetMapping("/usuario/{usuarioId}/exportar/pgn")
+    public ResponseEntity<StreamingResponseBody> exportarPgn(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String fen,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        Long posicionHash = jugadaService.prepararExportacionPgn(usuarioId, fen);
+
+        StreamingResponseBody cuerpo = crearCuerpoExportacion(gzip,
+                writer -> jugadaService.exportarPartidasPgn(usuarioId, posicionHash, partida -> {
+                    try {
+                        writer.append(partida);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+
+        HttpHeaders headers = new HttpHeaders();
+        if (gzip) {
+            headers.setContentType(MediaType.parseMediaType("application/gzip"));
+            headers.setContentDispositionFormData("attachment", "partidas_" + usuarioId + ".pgn.gz");
+        } else {
+            headers.setContentType(MediaType.parseMediaType("application/x-chess-pgn"));
+            headers.setContentDispositionFormData("attachment", "partidas_" + usuarioId + ".pgn");
         }
-        return value;
+
+        return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
+    }
+
+    /*
+     * Envuelve la salida con gzip opcional y un buffer propio; el escritor
+     * decide cuándo hacer flush para que el cliente reciba datos desde el
+     * primer bloque.
+     */
+    private StreamingResponseBody crearCuerpoExportacion(boolean gzip, EscritorExportacion escritor) {
+        return outputStream -> {
+            GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(outputStream, TAMANO_BUFFER_EXPORTACION) : null;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    gzipStream != null ? gzipStream : outputStream, StandardCharsets.UTF_8), TAMANO_BUFFER_EXPORTACION);
+
+            try {
+                escritor.escribir(writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            writer.flush();
+            if (gzipStream != null) {
+                gzipStream.finish();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface EscritorExportacion {
+        void escribir(Writer writer) throws IOException;
+    }
+
+    private void escribirLineaCsv(Writer writer, JugadaList jugada) throws IOException {
+        writer.append(CsvHelper.escapeCsv(jugada.getUsuarioNombre())).append(",");
+        writer.append(CsvHelper.escapeCsv(jugada.getFen())).append(",");
+        writer.append(CsvHelper.escapeCsv(jugada.getMoveUci())).append(",");
+        writer.append(CsvHelper.escapeCsv(jugada.getMoveSan())).append(",");
+        writer.append(jugada.getCreatedAt() != null ? jugada.getCreatedAt().toString() : "").append("\n");
     }
 
     @PostMapping("/importar/csv")
@@ -183,11 +482,8 @@ public class JugadaRestController {
                     continue;
                 }
 
-                String[] parts = line.split(",");
-                if (parts.length >= 2) {
-                    JugadaCsvImport csvRow = new JugadaCsvImport(
-                            parts[0].trim(),
-                            parts[1].trim());
+                JugadaCsvImport csvRow = CsvHelper.parsearLineaImportacion(line);
+                if (csvRow != null) {
                     preview.add(csvRow);
                 }
             }
@@ -208,21 +504,77 @@ public class JugadaRestController {
         List<JugadaCreate> jugadasCreate = new ArrayList<>();
 
         for (JugadaCsvImport csvRow : jugadas) {
-            String bestMove = csvRow.getJugadas();
-            String moveFrom = bestMove.length() >= 2 ? bestMove.substring(0, 2) : "";
-            String moveTo = bestMove.length() >= 4 ? bestMove.substring(2, 4) : "";
-
-            JugadaCreate jugadaCreate = new JugadaCreate(
-                    usuarioId,
-                    null,
-                    moveFrom,
-                    moveTo,
-                    csvRow.getFen(),
-                    null);
-            jugadasCreate.add(jugadaCreate);
+            jugadasCreate.add(CsvHelper.crearJugada(usuarioId, csvRow));
         }
 
-        List<JugadaInfo> resultado = jugadaService.crearJugadasBatch(jugadasCreate);
+        ResultadoImportacion resultado = jugadaService.importarJugadas(usuarioId, jugadasCreate);
         return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
     }
+
+    /*
+     * Importación en segundo plano: el fichero se vuelca a disco y la petición
+     * termina en cuanto el trabajo queda encolado. El cliente consulta el
+     * progreso en /importar/trabajos/{id}.
+     */
+    @PostMapping("/importar/trabajos")
+    public ResponseEntity<?> iniciarImportacion(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("usuarioId") Long usuarioId) {
+        return encolarImportacion(file, usuarioId, FormatoImportacion.CSV);
+    }
+
+    /*
+     * Base de partidas PGN: se importa igual que el CSV en segundo plano, con
+     * una jugada por movimiento de cada partida.
+     */
+    @PostMapping("/importar/pgn")
+    public ResponseEntity<?> iniciarImportacionPgn(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("usuarioId") Long usuarioId) {
+        return encolarImportacion(file, usuarioId, FormatoImportacion.PGN);
+    }
+
+    private ResponseEntity<?> encolarImportacion(MultipartFile file, Long usuarioId, FormatoImportacion formato) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("El archivo está vacío");
+        }
+
+        Path fichero;
+        try {
+            fichero = Files.createTempFile("jaquemate-importacion-", "." + formato.name().toLowerCase());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error al procesar el archivo: " + e.getMessage());
+        }
+        try {
+            file.transferTo(fichero);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(fichero);
+            } catch (IOException ignored) {
+                // El fichero temporal se perderá con el resto de temporales del sistema
+            }
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error al procesar el archivo: " + e.getMessage());
+        }
+
+        EstadoImportacion estado = formato == FormatoImportacion.PGN
+                ? importacionService.iniciarImportacionPgn(usuarioId, fichero)
+                : importacionService.iniciarImportacion(usuarioId, fichero);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/jugadas/importar/trabajos/" + estado.getId()))
+                .body(estado);
+    }
+
+    @GetMapping("/importar/trabajos/{id}")
+    public ResponseEntity<EstadoImportacion> getEstadoImportacion(@PathVariable String id) {
+        return importacionService.getEstado(id).map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @DeleteMapping("/importar/trabajos/{id}")
+    public ResponseEntity<EstadoImportacion> cancelarImportacion(@PathVariable String id) {
+        return importacionService.cancelarImportacion(id).map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
 }
@@ -0,0 +1,47 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.controller;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.helper.PaginationHelper;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaList;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ListadoRespuesta;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.PaginaDto;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.JugadaService;
+
+@RestController
+@RequestMapping("/api/v1/posiciones")
+public class PosicionRestController {
+
+    private final JugadaService jugadaService;
+
+    public PosicionRestController(JugadaService jugadaService) {
+        this.jugadaService = jugadaService;
+    }
+
+    // El FEN contiene '/', por eso se captura el resto de la ruta con {*fen}
+    @GetMapping("/{*fen}")
+    public ResponseEntity<ListadoRespuesta<JugadaList>> getJugadasByPosicion(
+            @PathVariable String fen,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt,desc") String[] sort) {
+
+        Pageable pageable = PaginationHelper.createPageable(page, size, sort);
+        PaginaDto<JugadaList> paginaJugadaList = jugadaService.findByPosicion(fen.substring(1), pageable);
+
+        ListadoRespuesta<JugadaList> response = new ListadoRespuesta<>(
+                paginaJugadaList.getNumber(),
+                paginaJugadaList.getSize(),
+                paginaJugadaList.getTotalElements(),
+                paginaJugadaList.getTotalPages(),
+                paginaJugadaList.getContent());
+
+        return ResponseEntity.ok(response);
+    }
+}
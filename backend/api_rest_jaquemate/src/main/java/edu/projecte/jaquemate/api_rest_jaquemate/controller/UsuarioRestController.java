@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -18,6 +19,8 @@ import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.LoginUsuario;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.UsuarioCreate;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.UsuarioInfo;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.UsuarioUpdate;
+import edu.projecte.jaquemate.api_rest_jaquemate.security.TokenAuthenticationFilter;
+import edu.projecte.jaquemate.api_rest_jaquemate.security.TokenService;
 import edu.projecte.jaquemate.api_rest_jaquemate.services.UsuarioService;
 import jakarta.validation.Valid;
 
@@ -26,9 +29,11 @@ import jakarta.validation.Valid;
 public class UsuarioRestController {
 
     private final UsuarioService usuarioService;
+    private final TokenService tokenService;
 
-    public UsuarioRestController(UsuarioService usuarioService) {
+    public UsuarioRestController(UsuarioService usuarioService, TokenService tokenService) {
         this.usuarioService = usuarioService;
+        this.tokenService = tokenService;
     }
 
     @PostMapping("/registro")
@@ -50,20 +55,30 @@ public class UsuarioRestController {
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginUsuario loginUsuario) {
-        if (usuarioService.comprobarLogin(loginUsuario)) {
-            Optional<UsuarioInfo> usuarioInfo = usuarioService.getByUsuario(loginUsuario.getUsuario());
-            if (usuarioInfo.isPresent()) {
-                Map<String, Object> response = new HashMap<>();
-                response.put("message", "Login exitoso");
-                response.put("usuario", usuarioInfo.get());
-                return ResponseEntity.ok(response);
-            }
-            return ResponseEntity.ok("Login exitoso");
+        Optional<UsuarioInfo> usuarioInfo = usuarioService.autenticar(loginUsuario);
+        if (usuarioInfo.isPresent()) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Login exitoso");
+            response.put("usuario", usuarioInfo.get());
+            response.put("token", tokenService.generarToken(usuarioInfo.get()));
+            return ResponseEntity.ok(response);
         } else {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Credenciales inválidas");
         }
     }
 
+    // Identifica al usuario a partir del token ya validado por el filtro, sin consultar la BD
+    @GetMapping("/sesion")
+    public ResponseEntity<Map<String, Long>> getSesion(
+            @RequestAttribute(name = TokenAuthenticationFilter.ATRIBUTO_USUARIO_ID, required = false) Long usuarioId) {
+        if (usuarioId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Map<String, Long> response = new HashMap<>();
+        response.put("usuarioId", usuarioId);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/perfil/{usuario}")
     public ResponseEntity<UsuarioInfo> getPerfilByUsuario(@PathVariable String usuario) {
         Optional<UsuarioInfo> usuarioInfo = usuarioService.getByUsuario(usuario);
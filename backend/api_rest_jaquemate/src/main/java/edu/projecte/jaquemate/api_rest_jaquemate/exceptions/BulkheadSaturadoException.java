@@ -0,0 +1,15 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.exceptions;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * No se obtuvo un permiso de conexión dentro del presupuesto de espera del
+ * bulkhead. Se traduce en un 503 para que el cliente reintente.
+ */
+public class BulkheadSaturadoException extends SQLTransientConnectionException {
+    private static final long serialVersionUID = 1L;
+
+    public BulkheadSaturadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class FenInvalidoException extends RuntimeException {
+    private final String errorCode;
+    private final String message;
+
+    public FenInvalidoException(String errorCode, String message) {
+        super(message);
+        this.errorCode = errorCode;
+        this.message = message;
+    }
+}
@@ -3,8 +3,10 @@ package edu.projecte.jaquemate.api_rest_jaquemate.exceptions;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -37,8 +39,60 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(CursorInvalidoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<CustomErrorResponse> handleCursorInvalidoException(CursorInvalidoException ex) {
+        CustomErrorResponse response = new CustomErrorResponse(ex.getErrorCode(), ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(FenInvalidoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<CustomErrorResponse> handleFenInvalidoException(FenInvalidoException ex) {
+        CustomErrorResponse response = new CustomErrorResponse(ex.getErrorCode(), ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(JugadaIlegalException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ResponseEntity<CustomErrorResponse> handleJugadaIlegalException(JugadaIlegalException ex) {
+        CustomErrorResponse response = new CustomErrorResponse(ex.getErrorCode(), ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(BulkheadSaturadoException.class)
+    public ResponseEntity<CustomErrorResponse> handleBulkheadSaturadoException(BulkheadSaturadoException ex) {
+        CustomErrorResponse response = new CustomErrorResponse("SERVICIO_SATURADO", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    @ExceptionHandler(ImportacionSaturadaException.class)
+    public ResponseEntity<CustomErrorResponse> handleImportacionSaturadaException(ImportacionSaturadaException ex) {
+        CustomErrorResponse response = new CustomErrorResponse(ex.getErrorCode(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(response);
+    }
+
+    // Dos ediciones simultáneas de la misma jugada: la segunda no pisa a la primera
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<CustomErrorResponse> handleOptimisticLockingFailureException(
+            ObjectOptimisticLockingFailureException ex) {
+        CustomErrorResponse response = new CustomErrorResponse("VERSION_OBSOLETA",
+                "El recurso se ha modificado mientras se procesaba la petición");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<String> handleGeneralException(Exception ex) {
+    public ResponseEntity<?> handleGeneralException(Exception ex) {
+        // El bulkhead suele llegar envuelto por Spring/Hibernate como causa
+        for (Throwable causa = ex.getCause(); causa != null; causa = causa.getCause()) {
+            if (causa instanceof BulkheadSaturadoException bulkhead) {
+                return handleBulkheadSaturadoException(bulkhead);
+            }
+        }
         return new ResponseEntity<>("Internal server error: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 }
@@ -0,0 +1,62 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.helper;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaCreate;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaCsvImport;
+
+/**
+ * Escritura y lectura de las líneas CSV de exportación e importación de jugadas.
+ */
+public class CsvHelper {
+
+    private CsvHelper() {
+    }
+
+    /**
+     * @param value
+     * @return el valor entre comillas si contiene separadores, comillas o saltos de línea
+     */
+    public static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * @param line línea de datos del CSV de importación (fen,jugada)
+     * @return la fila leída, o null si la línea no tiene las columnas necesarias
+     */
+    public static JugadaCsvImport parsearLineaImportacion(String line) {
+        String[] parts = line.split(",");
+        if (parts.length >= 2) {
+            return new JugadaCsvImport(
+                    parts[0].trim(),
+                    parts[1].trim());
+        }
+        return null;
+    }
+
+    /**
+     * @param usuarioId
+     * @param csvRow fila importada; la jugada llega en UCI (e2e4, e7e8q)
+     * @return la jugada a insertar, con origen y destino separados; la pieza de
+     *         promoción se conserva al final del destino (e8q)
+     */
+    public static JugadaCreate crearJugada(Long usuarioId, JugadaCsvImport csvRow) {
+        String bestMove = csvRow.getJugadas();
+        String moveFrom = bestMove.length() >= 2 ? bestMove.substring(0, 2) : "";
+        String moveTo = bestMove.length() >= 4 ? bestMove.substring(2) : "";
+
+        return new JugadaCreate(
+                usuarioId,
+                null,
+                moveFrom,
+                moveTo,
+                csvRow.getFen(),
+                null,
+                null);
+    }
+}
@@ -0,0 +1,47 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.helper;
+
+import java.time.ZoneOffset;
+
+import org.springframework.http.MediaType;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoListado;
+
+/**
+ * ETags de las respuestas de jugadas. Se calculan con datos que la BD devuelve
+ * sin cargar entidades, para responder 304 antes de mapear o serializar nada.
+ */
+public class EtagHelper {
+
+    private EtagHelper() {
+    }
+
+    /**
+     * ETag fuerte: la misma versión de una jugada produce siempre los mismos
+     * bytes en cada formato.
+     *
+     * @param formato representación negociada (JSON, CBOR, Smile); null equivale a JSON
+     */
+    public static String etagJugada(Long id, Long version, MediaType formato) {
+        return "\"j" + id + "-" + version + sufijoFormato(formato) + "\"";
+    }
+
+    /**
+     * ETag débil: el contenido de la página depende también de la URL (página,
+     * orden, cursor), que ya distingue las entradas de la caché.
+     */
+    public static String etagListado(EstadoListado estado, MediaType formato) {
+        long ultimaCreada = estado.getUltimaCreada() != null
+                ? estado.getUltimaCreada().toInstant(ZoneOffset.UTC).toEpochMilli()
+                : 0L;
+        return "W/\"" + estado.getTotal() + "-" + Long.toString(ultimaCreada, 36) + "-"
+                + estado.getSumaVersiones() + "-" + estado.getSumaVersionesUsuarios() + sufijoFormato(formato) + "\"";
+    }
+
+    /*
+     * Con Vary: Accept una caché guarda una variante por formato y elige cuál
+     * servir tras un 304 por su ETag, así que cada formato necesita el suyo.
+     */
+    private static String sufijoFormato(MediaType formato) {
+        return formato == null || MediaType.APPLICATION_JSON.equals(formato) ? "" : "-" + formato.getSubtype();
+    }
+}
@@ -0,0 +1,76 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.helper;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de cadenas, seguro entre hilos y sin borrado. Una respuesta
+ * negativa de {@link #puedeContener(String)} es definitiva; una positiva solo
+ * indica que el valor puede estar.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long numeroBits;
+    private final int numeroHashes;
+
+    /**
+     * @param capacidad      número de elementos esperado
+     * @param probabilidadFp tasa de falsos positivos deseada con esa capacidad
+     */
+    public FiltroBloom(long capacidad, double probabilidadFp) {
+        if (capacidad <= 0 || probabilidadFp <= 0 || probabilidadFp >= 1) {
+            throw new IllegalArgumentException("Parámetros del filtro de Bloom no válidos");
+        }
+        long m = (long) Math.ceil(-capacidad * Math.log(probabilidadFp) / (Math.log(2) * Math.log(2)));
+        this.numeroBits = Math.max(64, (m + 63) / 64 * 64);
+        this.numeroHashes = Math.max(1, (int) Math.round((double) numeroBits / capacidad * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (numeroBits / 64));
+    }
+
+    public void agregar(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < numeroHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numeroBits);
+            int palabra = (int) (bit >>> 6);
+            long mascara = 1L << (bit & 63);
+            long actual;
+            do {
+                actual = bits.get(palabra);
+                if ((actual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palabra, actual, actual | mascara));
+        }
+    }
+
+    public boolean puedeContener(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < numeroHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numeroBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String valor) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h = (h ^ valor.charAt(i)) * 0x100000001B3L;
+        }
+        return mezclar(h);
+    }
+
+    // Finalizador de MurmurHash3 (fmix64)
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,6 +1,10 @@
 package edu.projecte.jaquemate.api_rest_jaquemate.helper;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 import org.springframework.data.domain.PageRequest;
@@ -9,8 +13,18 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.domain.Sort.Order;
 
+import edu.projecte.jaquemate.api_rest_jaquemate.exceptions.CursorInvalidoException;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.CursorPagina;
+
 public class PaginationHelper {
 
+    // Tamaño de página máximo que se sirve, se pida lo que se pida
+    public static final int TAMANO_MAXIMO = 100;
+
+    private static final String SEPARADOR_CURSOR = "_";
+    // Único orden compatible con el cursor (createdAt, id)
+    private static final Sort ORDEN_CURSOR = Sort.by(Direction.DESC, "createdAt");
+
     private PaginationHelper() {
     }
 
@@ -21,7 +35,39 @@ public class PaginationHelper {
      * @return
      */
     public static Pageable createPageable(int page, int size, String[] sort) {
+        return PageRequest.of(page, limitarTamano(size), crearOrden(sort));
+    }
+
+    /**
+     * @return size dentro de [1, {@link #TAMANO_MAXIMO}]
+     */
+    public static int limitarTamano(int size) {
+        return Math.clamp(size, 1, TAMANO_MAXIMO);
+    }
+
+    /**
+     * La paginación por cursor siempre recorre (createdAt, id) descendente; un
+     * sort distinto se rechaza en lugar de ignorarlo en silencio.
+     *
+     * @param sort valor de ?sort=, null si no se envió
+     */
+    public static void comprobarOrdenCursor(String[] sort) {
+        if (sort == null || sort.length == 0) {
+            return;
+        }
+        Sort orden;
+        try {
+            orden = crearOrden(sort);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            orden = null;
+        }
+        if (!ORDEN_CURSOR.equals(orden)) {
+            throw new CursorInvalidoException("ORDEN_CURSOR_NO_SOPORTADO",
+                    "La paginación por cursor solo admite sort=createdAt,desc");
+        }
+    }
 
+    private static Sort crearOrden(String[] sort) {
         List<Order> criteriosOrdenacion = new ArrayList<>();
         if (sort[0].contains(",")) {
             for (String criterioOrdenacion : sort) {
@@ -36,7 +82,39 @@ public class PaginationHelper {
             criteriosOrdenacion.add(new Order(Direction.fromString(sort[1]), sort[0]));
         }
 
-        Sort sorts = Sort.by(criteriosOrdenacion);
-        return PageRequest.of(page, size, sorts);
+        return Sort.by(criteriosOrdenacion);
+    }
+
+    /**
+     * Codifica la posición (createdAt, id) como un token opaco para el cliente.
+     *
+     * @param cursor
+     * @return token base64url, o null si no hay página siguiente
+     */
+    public static String codificarCursor(CursorPagina cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        String valor = cursor.getCreatedAt() + SEPARADOR_CURSOR + cursor.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token valor recibido en ?after=; vacío indica la primera página
+     * @return posición a partir de la cual continuar, o null para empezar desde el principio
+     */
+    public static CursorPagina decodificarCursor(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR_CURSOR);
+            return new CursorPagina(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new CursorInvalidoException("CURSOR_INVALIDO", "El cursor de paginación no es válido");
+        }
     }
 }
@@ -0,0 +1,65 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.Movimiento;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.NotacionSan;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.PartidaPgn;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.Tablero;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaCreate;
+
+/**
+ * Conversión de partidas PGN en jugadas, una fila por movimiento.
+ */
+public class PgnHelper {
+
+    private PgnHelper() {
+    }
+
+    /**
+     * Reproduce la partida y genera una jugada por movimiento con los mismos
+     * datos que envía el tablero de la aplicación: SAN, UCI, FEN antes y
+     * después de la jugada y PGN de la partida hasta ese movimiento.
+     *
+     * @param usuarioId
+     * @param partida
+     * @return las jugadas hasta el primer movimiento que no se puede jugar; si
+     *         hay menos filas que jugadas, la partida se cortó en ese índice
+     * @throws IllegalArgumentException si la etiqueta [FEN] no es válida
+     */
+    public static List<JugadaCreate> expandirPartida(Long usuarioId, PartidaPgn partida) {
+        Tablero tablero = Tablero.desdeFen(partida.getFenInicial() != null
+                ? partida.getFenInicial()
+                : Tablero.FEN_INICIAL);
+        List<JugadaCreate> filas = new ArrayList<>(partida.getJugadas().size());
+        StringBuilder pgn = new StringBuilder();
+
+        for (String jugada : partida.getJugadas()) {
+            int movimiento = NotacionSan.buscar(tablero, jugada);
+            if (movimiento == Movimiento.NULO) {
+                break;
+            }
+            // El SAN se regenera para normalizar sufijos y variantes (0-0, e8Q)
+            String san = NotacionSan.san(tablero, movimiento);
+            if (tablero.getTurno() == Tablero.BLANCAS) {
+                if (!pgn.isEmpty()) {
+                    pgn.append(' ');
+                }
+                pgn.append(tablero.getNumeroJugada()).append(". ");
+            } else if (pgn.isEmpty()) {
+                pgn.append(tablero.getNumeroJugada()).append("... ");
+            } else {
+                pgn.append(' ');
+            }
+            pgn.append(san);
+
+            String uci = Movimiento.toUci(movimiento);
+            String fenPrevio = tablero.toFen();
+            tablero.hacer(movimiento);
+            filas.add(new JugadaCreate(usuarioId, san, uci.substring(0, 2), uci.substring(2),
+                    tablero.toFen(), pgn.toString(), fenPrevio));
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,138 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.jobs;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Mantiene las particiones mensuales de jugadas (ver 07_particiones.sql): al
+ * arrancar y cada día crea las de los próximos meses y, si hay retención
+ * configurada, desacopla o borra las de los meses que la superan. Las jugadas
+ * de una partición purgada se descuentan antes del explorador de aperturas,
+ * en la misma transacción que el DETACH.
+ */
+@Component
+@ConditionalOnProperty(name = "jaquemate.particiones.enabled", havingValue = "true")
+public class MantenimientoParticiones implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MantenimientoParticiones.class);
+
+    public enum AccionRetencion {
+        // La partición queda como tabla independiente, fuera de las consultas
+        DETACH,
+        DROP
+    }
+
+    private static final String PREFIJO = "jugadas_p";
+    private static final DateTimeFormatter FORMATO_MES = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String CREAR_PARTICION = "SELECT crear_particion_jugadas(?)";
+    private static final String SELECT_PARTICIONES = "SELECT c.relname FROM pg_inherits i"
+            + " JOIN pg_class c ON c.oid = i.inhrelid"
+            + " WHERE i.inhparent = 'jugadas'::regclass AND c.relname ~ '^jugadas_p[0-9]{6}$'"
+            + " ORDER BY c.relname";
+
+    /*
+     * Los nombres de partición salen de pg_class y cumplen el patrón anterior.
+     * La partición se bloquea antes de contarla: un borrado concurrente que
+     * confirmara entre el recuento y el DETACH descontaría sus filas del
+     * explorador por segunda vez. SHARE ROW EXCLUSIVE deja leer pero espera a
+     * los borrados en curso y bloquea los nuevos hasta el final.
+     */
+    private static final String BLOQUEAR_PARTICION = "LOCK TABLE %s IN SHARE ROW EXCLUSIVE MODE";
+    private static final String CONTAR_EXPLORADOR = "CREATE TEMP TABLE explorador_purgado ON COMMIT DROP AS"
+            + " SELECT posicion_previa_hash AS posicion_hash, move_uci_from, move_uci_to, COUNT(*) AS veces FROM %s"
+            + " WHERE posicion_previa_hash IS NOT NULL AND move_uci_from IS NOT NULL AND move_uci_to IS NOT NULL"
+            + " GROUP BY posicion_previa_hash, move_uci_from, move_uci_to";
+    private static final String RESTAR_EXPLORADOR = "UPDATE explorador_movimientos e SET veces = e.veces - p.veces"
+            + " FROM explorador_purgado p WHERE e.posicion_hash = p.posicion_hash"
+            + " AND e.move_uci_from = p.move_uci_from AND e.move_uci_to = p.move_uci_to";
+    private static final String ELIMINAR_VACIOS = "DELETE FROM explorador_movimientos e USING explorador_purgado p"
+            + " WHERE e.posicion_hash = p.posicion_hash AND e.move_uci_from = p.move_uci_from"
+            + " AND e.move_uci_to = p.move_uci_to AND e.veces <= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int mesesAdelante;
+    private final int retencionMeses;
+    private final AccionRetencion accionRetencion;
+
+    public MantenimientoParticiones(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${jaquemate.particiones.meses-adelante:3}") int mesesAdelante,
+            @Value("${jaquemate.particiones.retencion-meses:0}") int retencionMeses,
+            @Value("${jaquemate.particiones.retencion-accion:DETACH}") AccionRetencion accionRetencion) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mesesAdelante = mesesAdelante;
+        this.retencionMeses = retencionMeses;
+        this.accionRetencion = accionRetencion;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        mantener();
+    }
+
+    @Scheduled(cron = "${jaquemate.particiones.cron:0 30 3 * * *}")
+    public void mantener() {
+        YearMonth actual = YearMonth.now();
+        try {
+            crearParticiones(actual);
+            if (retencionMeses > 0) {
+                purgarParticiones(actual.minusMonths(retencionMeses));
+            }
+        } catch (DataAccessException e) {
+            // Un fallo no debe tumbar el arranque: la partición por defecto recoge las filas
+            log.error("Mantenimiento de particiones de jugadas fallido", e);
+        }
+    }
+
+    void crearParticiones(YearMonth actual) {
+        for (int i = 0; i <= mesesAdelante; i++) {
+            Date mes = Date.valueOf(actual.plusMonths(i).atDay(1));
+            String creada = jdbcTemplate.queryForObject(CREAR_PARTICION, String.class, mes);
+            if (creada != null) {
+                log.info("Partición {} creada", creada);
+            }
+        }
+    }
+
+    /**
+     * @param primerMesConservado las particiones anteriores a este mes se purgan
+     */
+    void purgarParticiones(YearMonth primerMesConservado) {
+        List<String> particiones = jdbcTemplate.queryForList(SELECT_PARTICIONES, String.class);
+        for (String particion : particiones) {
+            YearMonth mes = YearMonth.parse(particion.substring(PREFIJO.length()), FORMATO_MES);
+            if (!mes.isBefore(primerMesConservado)) {
+                // Vienen ordenadas por nombre, es decir, por mes
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute(String.format(BLOQUEAR_PARTICION, particion));
+                jdbcTemplate.execute(String.format(CONTAR_EXPLORADOR, particion));
+                jdbcTemplate.update(RESTAR_EXPLORADOR);
+                jdbcTemplate.update(ELIMINAR_VACIOS);
+                jdbcTemplate.execute("ALTER TABLE jugadas DETACH PARTITION " + particion);
+                if (accionRetencion == AccionRetencion.DROP) {
+                    jdbcTemplate.execute("DROP TABLE " + particion);
+                }
+            });
+            log.info("Partición {} purgada ({})", particion, accionRetencion);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.jobs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.ValidadorJugadas;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.Zobrist;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.MovimientoExploradorId;
+import edu.projecte.jaquemate.api_rest_jaquemate.repository.JugadasBulkRepository;
+
+/**
+ * Calcula el hash Zobrist de las jugadas que se guardaron antes de existir las
+ * columnas posicion_hash y posicion_previa_hash y suma al explorador de
+ * aperturas las que pasan a tener posición previa. Recorre la tabla por
+ * bloques de id en el executor de tareas de la aplicación para no retrasar el
+ * arranque.
+ */
+@Component
+@ConditionalOnProperty(name = "jaquemate.posiciones.backfill.enabled", havingValue = "true")
+public class PosicionHashBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PosicionHashBackfill.class);
+
+    private static final String SELECT_PENDIENTES = "SELECT id, fen, move_uci_from, move_uci_to, pgn,"
+            + " posicion_hash, posicion_previa_hash FROM jugadas"
+            + " WHERE (posicion_hash IS NULL OR posicion_previa_hash IS NULL) AND fen IS NOT NULL AND id > ?"
+            + " ORDER BY id LIMIT ?";
+    private static final String UPDATE_HASH = "UPDATE jugadas SET posicion_hash = ?, posicion_previa_hash = ?"
+            + " WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JugadasBulkRepository jugadasBulkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int tamanoBloque;
+
+    // Con @EnableScheduling el planificador también es un TaskExecutor: se pide el de tareas por nombre
+    public PosicionHashBackfill(JdbcTemplate jdbcTemplate, JugadasBulkRepository jugadasBulkRepository,
+            PlatformTransactionManager transactionManager,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor,
+            @Value("${jaquemate.posiciones.backfill.tamano-bloque:1000}") int tamanoBloque) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jugadasBulkRepository = jugadasBulkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        taskExecutor.execute(this::rellenarHashes);
+    }
+
+    void rellenarHashes() {
+        long ultimoId = 0L;
+        long actualizadas = 0L;
+        List<Object[]> pendientes;
+        do {
+            pendientes = jdbcTemplate.query(SELECT_PENDIENTES,
+                    (rs, rowNum) -> new Object[] { rs.getLong("id"), rs.getString("fen"),
+                            rs.getString("move_uci_from"), rs.getString("move_uci_to"), rs.getString("pgn"),
+                            rs.getObject("posicion_hash", Long.class),
+                            rs.getObject("posicion_previa_hash", Long.class) },
+                    ultimoId, tamanoBloque);
+
+            List<Object[]> cambios = new ArrayList<>(pendientes.size());
+            Map<MovimientoExploradorId, Long> vecesExplorador = new HashMap<>();
+            for (Object[] fila : pendientes) {
+                String fen = (String) fila[1];
+                String moveUciFrom = (String) fila[2];
+                String moveUciTo = (String) fila[3];
+                Long posicionHash = fila[5] != null ? (Long) fila[5] : Zobrist.hashFenOrNull(fen);
+                // Sin FEN previo guardado, la posición anterior sale del FEN o de repetir el PGN
+                Long posicionPreviaHash = fila[6] != null ? (Long) fila[6]
+                        : Zobrist.hashFenOrNull(ValidadorJugadas.fenPrevio(fen, moveUciFrom, moveUciTo, null,
+                                (String) fila[4]));
+                if (Objects.equals(posicionHash, fila[5]) && Objects.equals(posicionPreviaHash, fila[6])) {
+                    continue;
+                }
+                cambios.add(new Object[] { posicionHash, posicionPreviaHash, fila[0] });
+                if (fila[6] == null && posicionPreviaHash != null) {
+                    vecesExplorador.merge(new MovimientoExploradorId(posicionPreviaHash,
+                            moveUciFrom, moveUciTo), 1L, Long::sum);
+                }
+            }
+            if (!cambios.isEmpty()) {
+                // Hash y explorador se confirman juntos para no contar dos veces una fila
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(UPDATE_HASH, cambios);
+                    if (!vecesExplorador.isEmpty()) {
+                        jugadasBulkRepository.acumularExplorador(vecesExplorador);
+                    }
+                });
+                actualizadas += cambios.size();
+            }
+            if (!pendientes.isEmpty()) {
+                ultimoId = (Long) pendientes.get(pendientes.size() - 1)[0];
+            }
+        } while (pendientes.size() == tamanoBloque);
+
+        log.info("Backfill de posicion_hash y posicion_previa_hash terminado: {} jugadas actualizadas", actualizadas);
+    }
+}
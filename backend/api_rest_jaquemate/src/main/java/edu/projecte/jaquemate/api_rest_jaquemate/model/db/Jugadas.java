@@ -8,9 +8,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,11 +24,17 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "jugadas")
+@Table(name = "jugadas", indexes = {
+        @Index(name = "idx_jugadas_created_at_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_jugadas_usuario_created_at_id", columnList = "usuario_id, created_at DESC, id DESC"),
+        @Index(name = "idx_jugadas_posicion_hash", columnList = "posicion_hash"),
+        @Index(name = "idx_jugadas_posicion_previa_hash", columnList = "posicion_previa_hash")
+})
 public class Jugadas {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "jugadas_id_gen")
+    @SequenceGenerator(name = "jugadas_id_gen", sequenceName = "jugadas_id_seq", allocationSize = Secuencias.BLOQUE_IDS)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -47,7 +56,20 @@ public class Jugadas {
     @Column(columnDefinition = "TEXT")
     private String pgn;
 
+    // Hash Zobrist de la posición normalizada del FEN (ver chess.Zobrist)
+    @Column(name = "posicion_hash")
+    private Long posicionHash;
+
+    // Hash de la posición desde la que se hizo la jugada: clave del explorador de aperturas
+    @Column(name = "posicion_previa_hash")
+    private Long posicionPreviaHash;
+
+    // Bloqueo optimista; también forma el ETag de la jugada (ver 08_version_jugadas.sql)
+    @Version
+    private Long version;
+
+    // Clave de partición de la tabla: no puede ser nula y no se modifica al editar
     @Builder.Default
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 }
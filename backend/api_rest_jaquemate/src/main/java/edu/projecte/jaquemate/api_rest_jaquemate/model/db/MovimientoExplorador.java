@@ -0,0 +1,30 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.db;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Agregado del explorador de aperturas: cuántas veces se ha jugado cada
+ * movimiento desde cada posición. Se mantiene al crear, importar y eliminar
+ * jugadas.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "explorador_movimientos")
+public class MovimientoExplorador {
+
+    @EmbeddedId
+    private MovimientoExploradorId id;
+
+    @Column(nullable = false)
+    private Long veces;
+}
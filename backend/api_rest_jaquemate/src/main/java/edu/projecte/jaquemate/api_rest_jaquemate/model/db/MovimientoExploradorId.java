@@ -0,0 +1,26 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.db;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoExploradorId implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "posicion_hash")
+    private Long posicionHash;
+
+    @Column(name = "move_uci_from", columnDefinition = "TEXT")
+    private String moveUciFrom;
+
+    @Column(name = "move_uci_to", columnDefinition = "TEXT")
+    private String moveUciTo;
+}
@@ -0,0 +1,14 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.db;
+
+/**
+ * Parámetros comunes de las secuencias de ids de las entidades (ver
+ * 06_secuencias.sql).
+ */
+public final class Secuencias {
+
+    // Ids reservados por cada nextval: debe coincidir con el INCREMENT BY de todas las secuencias
+    public static final int BLOQUE_IDS = 50;
+
+    private Secuencias() {
+    }
+}
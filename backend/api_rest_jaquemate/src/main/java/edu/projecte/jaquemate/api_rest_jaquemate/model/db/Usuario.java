@@ -7,7 +7,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -25,7 +27,8 @@ import lombok.NoArgsConstructor;
 public class Usuario {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_id_gen")
+    @SequenceGenerator(name = "usuarios_id_gen", sequenceName = "usuarios_id_seq", allocationSize = Secuencias.BLOQUE_IDS)
     private Long id;
 
     @NotBlank
@@ -44,4 +47,8 @@ public class Usuario {
     @Builder.Default
     private LocalDateTime creado = LocalDateTime.now();
 
+    // Cambia con cada edición del perfil; entra en el ETag de los listados de jugadas, que muestran el nombre
+    @Version
+    private Long version;
+
 }
@@ -0,0 +1,27 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ConsultaLenta {
+    private long id;
+    private String sql;
+    // Tipo de cada parámetro (Long, String, null...), nunca su valor
+    private List<String> parametros;
+    private int lotes;
+    private double duracionMs;
+    // -1 si el driver no informa de las filas
+    private long filas;
+    private LocalDateTime fecha;
+
+    // Valores de los parámetros, solo para repetir la consulta con EXPLAIN; null en las de usuarios
+    @JsonIgnore
+    private List<Object> valores;
+}
@@ -0,0 +1,18 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Posición (createdAt, id) de la última jugada devuelta en una página por cursor.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class CursorPagina {
+    private LocalDateTime createdAt;
+    private Long id;
+}
@@ -0,0 +1,27 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EstadoImportacion {
+    private String id;
+    private Long usuarioId;
+    private FormatoImportacion formato;
+    private EstadoTrabajoImportacion estado;
+    private long filasLeidas;
+    private long aceptadas;
+    private long rechazadas;
+    // Fracción del fichero ya procesada, de 0 a 1
+    private double progreso;
+    private double filasPorSegundo;
+    // Muestra acotada de los errores encontrados
+    private List<String> errores;
+    private LocalDateTime creado;
+    private LocalDateTime iniciado;
+    private LocalDateTime terminado;
+}
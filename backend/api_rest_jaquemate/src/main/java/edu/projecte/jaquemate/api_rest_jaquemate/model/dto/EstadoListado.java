@@ -0,0 +1,24 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumen de las jugadas que abarca un listado, suficiente para saber si ha
+ * cambiado (ETag) sin leer ninguna página: cuántas hay, la más reciente y la
+ * suma de sus versiones, que crece con cada edición. Como cada fila muestra
+ * también el nombre del jugador, se suman además las versiones de los usuarios
+ * del alcance para que un cambio de nombre invalide el listado.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class EstadoListado {
+    private Long total;
+    private LocalDateTime ultimaCreada;
+    private Long sumaVersiones;
+    private Long sumaVersionesUsuarios;
+}
@@ -0,0 +1,9 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.dto;
+
+public enum EstadoTrabajoImportacion {
+    EN_COLA,
+    EN_CURSO,
+    COMPLETADO,
+    CANCELADO,
+    ERROR
+}
@@ -0,0 +1,16 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ExploradorRespuesta {
+    private String fen;
+    private Long posicionHash;
+    private List<MovimientoExploradorInfo> movimientos;
+}
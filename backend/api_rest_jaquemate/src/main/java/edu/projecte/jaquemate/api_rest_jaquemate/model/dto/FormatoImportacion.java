@@ -0,0 +1,8 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.dto;
+
+public enum FormatoImportacion {
+    // Dos columnas: fen,jugada (UCI)
+    CSV,
+    // Base de partidas: una fila por movimiento de la línea principal
+    PGN
+}
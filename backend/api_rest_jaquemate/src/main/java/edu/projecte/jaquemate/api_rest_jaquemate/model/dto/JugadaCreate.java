@@ -25,4 +25,7 @@ public class JugadaCreate {
     private String fen;
 
     private String pgn;
+
+    // Posición antes de la jugada cuando el FEN es el resultante (tablero de la aplicación); opcional
+    private String fenPrevio;
 }
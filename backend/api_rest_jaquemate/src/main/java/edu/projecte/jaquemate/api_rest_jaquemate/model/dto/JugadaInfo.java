@@ -20,5 +20,6 @@ public class JugadaInfo {
     private String moveUciTo;
     private String fen;
     private String pgn;
+    private Long posicionHash;
     private LocalDateTime createdAt;
 }
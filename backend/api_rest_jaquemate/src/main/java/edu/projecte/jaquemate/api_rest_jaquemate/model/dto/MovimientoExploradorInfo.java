@@ -0,0 +1,15 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class MovimientoExploradorInfo {
+    private String moveUci;
+    private String moveUciFrom;
+    private String moveUciTo;
+    private long veces;
+}
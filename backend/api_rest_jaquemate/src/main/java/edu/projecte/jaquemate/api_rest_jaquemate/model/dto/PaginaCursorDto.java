@@ -0,0 +1,18 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDto<T> {
+    int size;
+    List<T> content;
+    CursorPagina siguiente;
+}
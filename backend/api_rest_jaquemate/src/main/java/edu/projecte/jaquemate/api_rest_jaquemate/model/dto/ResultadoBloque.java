@@ -0,0 +1,15 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ResultadoBloque {
+    private int numero;
+    private int aceptadas;
+    private int rechazadas;
+    private String error;
+}
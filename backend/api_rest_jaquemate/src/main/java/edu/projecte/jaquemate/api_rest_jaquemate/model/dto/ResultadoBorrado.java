@@ -0,0 +1,17 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de un borrado masivo: jugadas borradas y bloques (transacciones)
+ * en los que se ha hecho.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ResultadoBorrado {
+    private long eliminadas;
+    private int bloques;
+}
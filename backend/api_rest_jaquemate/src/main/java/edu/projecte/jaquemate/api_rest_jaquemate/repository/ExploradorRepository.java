@@ -0,0 +1,41 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.MovimientoExplorador;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.MovimientoExploradorId;
+
+@Repository
+public interface ExploradorRepository extends JpaRepository<MovimientoExplorador, MovimientoExploradorId> {
+
+    List<MovimientoExplorador> findByIdPosicionHashOrderByVecesDesc(Long posicionHash, Limit limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO explorador_movimientos (posicion_hash, move_uci_from, move_uci_to, veces)"
+            + " VALUES (:posicionHash, :moveUciFrom, :moveUciTo, :veces)"
+            + " ON CONFLICT (posicion_hash, move_uci_from, move_uci_to)"
+            + " DO UPDATE SET veces = explorador_movimientos.veces + EXCLUDED.veces", nativeQuery = true)
+    void sumarVeces(@Param("posicionHash") Long posicionHash, @Param("moveUciFrom") String moveUciFrom,
+            @Param("moveUciTo") String moveUciTo, @Param("veces") long veces);
+
+    @Modifying
+    @Query(value = "UPDATE explorador_movimientos SET veces = veces - :veces"
+            + " WHERE posicion_hash = :posicionHash AND move_uci_from = :moveUciFrom AND move_uci_to = :moveUciTo",
+            nativeQuery = true)
+    void restarVeces(@Param("posicionHash") Long posicionHash, @Param("moveUciFrom") String moveUciFrom,
+            @Param("moveUciTo") String moveUciTo, @Param("veces") long veces);
+
+    @Modifying
+    @Query(value = "DELETE FROM explorador_movimientos"
+            + " WHERE posicion_hash = :posicionHash AND move_uci_from = :moveUciFrom AND move_uci_to = :moveUciTo"
+            + " AND veces <= 0", nativeQuery = true)
+    void eliminarSiVacio(@Param("posicionHash") Long posicionHash, @Param("moveUciFrom") String moveUciFrom,
+            @Param("moveUciTo") String moveUciTo);
+}
@@ -0,0 +1,219 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.MovimientoExploradorId;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Secuencias;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaCreate;
+
+/**
+ * Inserción masiva de jugadas por JDBC. Con reWriteBatchedInserts el driver de
+ * PostgreSQL convierte cada lote en INSERTs multi-fila, sin pasar por el
+ * contexto de persistencia de Hibernate.
+ */
+@Repository
+public class JugadasBulkRepository {
+
+    private static final String INSERT_JUGADA = "INSERT INTO jugadas"
+            + " (id, usuario_id, move_san, move_uci_from, move_uci_to, fen, pgn, posicion_hash,"
+            + " posicion_previa_hash, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Cada nextval reserva Secuencias.BLOQUE_IDS ids, como el optimizador pooled-lo de Hibernate
+    private static final String RESERVAR_IDS = "SELECT nextval('jugadas_id_seq') FROM generate_series(1, ?)";
+
+    private static final String UPSERT_EXPLORADOR = "INSERT INTO explorador_movimientos"
+            + " (posicion_hash, move_uci_from, move_uci_to, veces) VALUES (?, ?, ?, ?)"
+            + " ON CONFLICT (posicion_hash, move_uci_from, move_uci_to)"
+            + " DO UPDATE SET veces = explorador_movimientos.veces + EXCLUDED.veces";
+
+    private static final String RESTAR_EXPLORADOR = "UPDATE explorador_movimientos SET veces = veces - ?"
+            + " WHERE posicion_hash = ? AND move_uci_from = ? AND move_uci_to = ?";
+    private static final String ELIMINAR_EXPLORADOR_VACIO = "DELETE FROM explorador_movimientos"
+            + " WHERE posicion_hash = ? AND move_uci_from = ? AND move_uci_to = ? AND veces <= 0";
+
+    /*
+     * Borrados por conjuntos: un único DELETE ... RETURNING por bloque y las
+     * filas borradas agrupadas ya en la BD por (posición previa, movimiento),
+     * que es lo que hay que descontar del explorador.
+     */
+    private static final String AGRUPAR_BORRADAS = " SELECT posicion_previa_hash, move_uci_from, move_uci_to,"
+            + " COUNT(*) AS veces FROM borradas GROUP BY posicion_previa_hash, move_uci_from, move_uci_to";
+    private static final String BORRAR_POR_IDS = "WITH borradas AS (DELETE FROM jugadas WHERE id = ANY (?)"
+            + " RETURNING posicion_previa_hash, move_uci_from, move_uci_to)" + AGRUPAR_BORRADAS;
+    // El rango se repite fuera de la subconsulta para que el DELETE también descarte particiones
+    private static final String BORRAR_BLOQUE_RANGO = "WITH borradas AS (DELETE FROM jugadas"
+            + " WHERE created_at >= ? AND created_at < ? AND id IN (SELECT id FROM jugadas"
+            + " WHERE created_at >= ? AND created_at < ? LIMIT ?)"
+            + " RETURNING posicion_previa_hash, move_uci_from, move_uci_to)" + AGRUPAR_BORRADAS;
+    private static final String BORRAR_BLOQUE_USUARIO = "WITH borradas AS (DELETE FROM jugadas"
+            + " WHERE usuario_id = ? AND created_at >= ? AND created_at < ? AND id IN (SELECT id FROM jugadas"
+            + " WHERE usuario_id = ? AND created_at >= ? AND created_at < ? LIMIT ?)"
+            + " RETURNING posicion_previa_hash, move_uci_from, move_uci_to)" + AGRUPAR_BORRADAS;
+
+    private static final Comparator<MovimientoExploradorId> ORDEN_EXPLORADOR = Comparator
+            .comparing(MovimientoExploradorId::getPosicionHash)
+            .thenComparing(MovimientoExploradorId::getMoveUciFrom)
+            .thenComparing(MovimientoExploradorId::getMoveUciTo);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JugadasBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param usuarioId            usuario ya validado al que pertenecen todas las jugadas
+     * @param jugadas              bloque a insertar
+     * @param posicionHashes       hash Zobrist de cada jugada, en el mismo orden (puede contener null)
+     * @param posicionPreviaHashes hash de la posición anterior a cada jugada, clave del
+     *                             explorador, en el mismo orden (puede contener null)
+     * @return número de filas insertadas
+     */
+    public int insertarBloque(Long usuarioId, List<JugadaCreate> jugadas, List<Long> posicionHashes,
+            List<Long> posicionPreviaHashes) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        // Con el DEFAULT de la columna cada fila gastaría un bloque entero de la secuencia
+        List<Long> bases = jdbcTemplate.queryForList(RESERVAR_IDS, Long.class,
+                (jugadas.size() + Secuencias.BLOQUE_IDS - 1) / Secuencias.BLOQUE_IDS);
+        jdbcTemplate.batchUpdate(INSERT_JUGADA, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                JugadaCreate jugada = jugadas.get(i);
+                ps.setLong(1, bases.get(i / Secuencias.BLOQUE_IDS) + i % Secuencias.BLOQUE_IDS);
+                ps.setLong(2, usuarioId);
+                ps.setString(3, jugada.getMoveSan());
+                ps.setString(4, jugada.getMoveUciFrom());
+                ps.setString(5, jugada.getMoveUciTo());
+                ps.setString(6, jugada.getFen());
+                ps.setString(7, jugada.getPgn());
+                ponerHash(ps, 8, posicionHashes.get(i));
+                ponerHash(ps, 9, posicionPreviaHashes.get(i));
+                ps.setTimestamp(10, ahora);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return jugadas.size();
+            }
+        });
+        return jugadas.size();
+    }
+
+    private static void ponerHash(PreparedStatement ps, int indice, Long hash) throws SQLException {
+        if (hash != null) {
+            ps.setLong(indice, hash);
+        } else {
+            ps.setNull(indice, Types.BIGINT);
+        }
+    }
+
+    /**
+     * Borra las jugadas con esos ids en una sola sentencia.
+     *
+     * @param vecesExplorador recibe, por (posición, movimiento), las jugadas
+     *                        borradas que contaban en el explorador
+     * @return número de filas borradas
+     */
+    public int borrarPorIds(List<Long> ids, Map<MovimientoExploradorId, Long> vecesExplorador) {
+        return jdbcTemplate.query(BORRAR_POR_IDS,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+                borradas(vecesExplorador));
+    }
+
+    /**
+     * Borra como mucho {@code limite} jugadas creadas en [desde, hasta), solo
+     * del usuario si no es null. Se repite hasta que borra menos del límite.
+     *
+     * @return número de filas borradas
+     */
+    public int borrarBloque(Long usuarioId, LocalDateTime desde, LocalDateTime hasta, int limite,
+            Map<MovimientoExploradorId, Long> vecesExplorador) {
+        Timestamp inicio = Timestamp.valueOf(desde);
+        Timestamp fin = Timestamp.valueOf(hasta);
+        if (usuarioId == null) {
+            return jdbcTemplate.query(BORRAR_BLOQUE_RANGO, ps -> {
+                ps.setTimestamp(1, inicio);
+                ps.setTimestamp(2, fin);
+                ps.setTimestamp(3, inicio);
+                ps.setTimestamp(4, fin);
+                ps.setInt(5, limite);
+            }, borradas(vecesExplorador));
+        }
+        return jdbcTemplate.query(BORRAR_BLOQUE_USUARIO, ps -> {
+            ps.setLong(1, usuarioId);
+            ps.setTimestamp(2, inicio);
+            ps.setTimestamp(3, fin);
+            ps.setLong(4, usuarioId);
+            ps.setTimestamp(5, inicio);
+            ps.setTimestamp(6, fin);
+            ps.setInt(7, limite);
+        }, borradas(vecesExplorador));
+    }
+
+    // Las jugadas sin posición previa o sin movimiento nunca entraron en el explorador
+    private static ResultSetExtractor<Integer> borradas(Map<MovimientoExploradorId, Long> vecesExplorador) {
+        return rs -> {
+            int borradas = 0;
+            while (rs.next()) {
+                long veces = rs.getLong("veces");
+                borradas += (int) veces;
+                Long posicionHash = rs.getObject("posicion_previa_hash", Long.class);
+                String moveUciFrom = rs.getString("move_uci_from");
+                String moveUciTo = rs.getString("move_uci_to");
+                if (posicionHash != null && moveUciFrom != null && moveUciTo != null) {
+                    vecesExplorador.merge(new MovimientoExploradorId(posicionHash, moveUciFrom, moveUciTo),
+                            veces, Long::sum);
+                }
+            }
+            return borradas;
+        };
+    }
+
+    /**
+     * Suma en el explorador de aperturas los contadores ya agrupados de un bloque.
+     */
+    public void acumularExplorador(Map<MovimientoExploradorId, Long> veces) {
+        // Orden estable de claves para que dos importaciones concurrentes no se bloqueen mutuamente
+        List<Map.Entry<MovimientoExploradorId, Long>> filas = new ArrayList<>(veces.entrySet());
+        filas.sort(Map.Entry.comparingByKey(ORDEN_EXPLORADOR));
+        jdbcTemplate.batchUpdate(UPSERT_EXPLORADOR, filas, filas.size(), (ps, fila) -> {
+            ps.setLong(1, fila.getKey().getPosicionHash());
+            ps.setString(2, fila.getKey().getMoveUciFrom());
+            ps.setString(3, fila.getKey().getMoveUciTo());
+            ps.setLong(4, fila.getValue());
+        });
+    }
+
+    /**
+     * Resta del explorador los contadores de las jugadas borradas y elimina las
+     * entradas que se quedan a cero.
+     */
+    public void descontarExplorador(Map<MovimientoExploradorId, Long> veces) {
+        List<Map.Entry<MovimientoExploradorId, Long>> filas = new ArrayList<>(veces.entrySet());
+        filas.sort(Map.Entry.comparingByKey(ORDEN_EXPLORADOR));
+        jdbcTemplate.batchUpdate(RESTAR_EXPLORADOR, filas, filas.size(), (ps, fila) -> {
+            ps.setLong(1, fila.getValue());
+            ps.setLong(2, fila.getKey().getPosicionHash());
+            ps.setString(3, fila.getKey().getMoveUciFrom());
+            ps.setString(4, fila.getKey().getMoveUciTo());
+        });
+        jdbcTemplate.batchUpdate(ELIMINAR_EXPLORADOR_VACIO, filas, filas.size(), (ps, fila) -> {
+            ps.setLong(1, fila.getKey().getPosicionHash());
+            ps.setString(2, fila.getKey().getMoveUciFrom());
+            ps.setString(3, fila.getKey().getMoveUciTo());
+        });
+    }
+}
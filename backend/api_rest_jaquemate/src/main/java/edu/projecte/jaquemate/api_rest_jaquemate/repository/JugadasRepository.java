@@ -1,25 +1,157 @@
 package edu.projecte.jaquemate.api_rest_jaquemate.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Jugadas;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoListado;
 
 @Repository
 public interface JugadasRepository extends JpaRepository<Jugadas, Long> {
 
-    Page<Jugadas> findByUsuarioId(Long usuarioId, Pageable pageable);
+    /*
+     * Usuarios cuyo nombre contiene :patron (con %, _ y \ ya escapados),
+     * resueltos por el índice trigram de usuarios.usuario dentro de la misma
+     * consulta: una búsqueda corta puede casar con miles de usuarios y como
+     * lista de parámetros superaría el límite de PostgreSQL.
+     */
+    String USUARIOS_POR_NOMBRE = "SELECT u.id FROM Usuario u"
+            + " WHERE u.usuario LIKE CONCAT('%', :patron, '%') ESCAPE '\\'";
+    String USUARIOS_POR_NOMBRE_IGNORE_CASE = "SELECT u.id FROM Usuario u"
+            + " WHERE u.usuario ILIKE CONCAT('%', :patron, '%') ESCAPE '\\'";
 
-    @Query("SELECT j FROM Jugadas j WHERE j.usuario.usuario LIKE %:nombre%")
-    Page<Jugadas> findByUsuarioNombreContaining(@Param("nombre") String nombre, Pageable pageable);
+    /*
+     * Los listados cargan el usuario en la misma consulta (JugadaList necesita
+     * su nombre) para no lanzar una SELECT extra por cada usuario de la página.
+     * Devuelven solo la página, sin COUNT: el total sale de findEstadoListado*,
+     * que se consulta antes para el ETag.
+     */
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT j FROM Jugadas j")
+    List<Jugadas> findPagina(Pageable pageable);
+
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT j FROM Jugadas j WHERE j.usuario.id = :usuarioId")
+    List<Jugadas> findPaginaByUsuarioId(@Param("usuarioId") Long usuarioId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT j FROM Jugadas j WHERE j.usuario.id IN (" + USUARIOS_POR_NOMBRE + ")")
+    List<Jugadas> findPaginaByUsuarioNombre(@Param("patron") String patron, Pageable pageable);
+
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT j FROM Jugadas j WHERE j.usuario.id IN (" + USUARIOS_POR_NOMBRE_IGNORE_CASE + ")")
+    List<Jugadas> findPaginaByUsuarioNombreIgnoreCase(@Param("patron") String patron, Pageable pageable);
 
     List<Jugadas> findByUsuarioId(Long usuarioId);
 
+    /*
+     * Paginación por cursor (keyset) sobre (createdAt, id) descendente. La
+     * condición redundante createdAt <= :createdAt permite arrancar el recorrido
+     * del índice directamente en la posición del cursor y descartar las
+     * particiones posteriores.
+     */
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT j FROM Jugadas j"
+            + " WHERE j.createdAt <= :createdAt AND (j.createdAt < :createdAt OR j.id < :id)"
+            + " ORDER BY j.createdAt DESC, j.id DESC")
+    List<Jugadas> findPaginaTrasCursor(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Limit limit);
+
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT j FROM Jugadas j WHERE j.usuario.id = :usuarioId"
+            + " AND j.createdAt <= :createdAt AND (j.createdAt < :createdAt OR j.id < :id)"
+            + " ORDER BY j.createdAt DESC, j.id DESC")
+    List<Jugadas> findPaginaTrasCursorByUsuarioId(@Param("usuarioId") Long usuarioId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT j FROM Jugadas j WHERE j.usuario.id IN (" + USUARIOS_POR_NOMBRE + ")"
+            + " AND j.createdAt <= :createdAt AND (j.createdAt < :createdAt OR j.id < :id)"
+            + " ORDER BY j.createdAt DESC, j.id DESC")
+    List<Jugadas> findPaginaTrasCursorByUsuarioNombre(@Param("patron") String patron,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT j FROM Jugadas j WHERE j.usuario.id IN (" + USUARIOS_POR_NOMBRE_IGNORE_CASE + ")"
+            + " AND j.createdAt <= :createdAt AND (j.createdAt < :createdAt OR j.id < :id)"
+            + " ORDER BY j.createdAt DESC, j.id DESC")
+    List<Jugadas> findPaginaTrasCursorByUsuarioNombreIgnoreCase(@Param("patron") String patron,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT j.version FROM Jugadas j WHERE j.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /*
+     * Resumen del alcance de cada listado para su ETag y total de la página:
+     * una sola agregación, sin cargar entidades ni unir cada jugada con su
+     * usuario. Los índices por (created_at, id) y (usuario_id, created_at, id)
+     * incluyen version (08_version_jugadas.sql), así que se resuelve con un
+     * recorrido solo de índice. Las versiones de los usuarios salen de una
+     * subconsulta sobre usuarios, que es pequeña; en el listado general entran
+     * todos, aunque alguno no tenga jugadas.
+     */
+    @Query("SELECT new edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoListado("
+            + "COUNT(j), MAX(j.createdAt), COALESCE(SUM(j.version), 0L),"
+            + " (SELECT COALESCE(SUM(u.version), 0L) FROM Usuario u)) FROM Jugadas j")
+    EstadoListado findEstadoListado();
+
+    @Query("SELECT new edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoListado("
+            + "COUNT(j), MAX(j.createdAt), COALESCE(SUM(j.version), 0L),"
+            + " (SELECT COALESCE(SUM(u.version), 0L) FROM Usuario u WHERE u.id = :usuarioId)) FROM Jugadas j"
+            + " WHERE j.usuario.id = :usuarioId")
+    EstadoListado findEstadoListadoByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT new edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoListado("
+            + "COUNT(j), MAX(j.createdAt), COALESCE(SUM(j.version), 0L),"
+            + " (SELECT COALESCE(SUM(v.version), 0L) FROM Usuario v WHERE v.id IN (" + USUARIOS_POR_NOMBRE + ")))"
+            + " FROM Jugadas j WHERE j.usuario.id IN (" + USUARIOS_POR_NOMBRE + ")")
+    EstadoListado findEstadoListadoByUsuarioNombre(@Param("patron") String patron);
+
+    @Query("SELECT new edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoListado("
+            + "COUNT(j), MAX(j.createdAt), COALESCE(SUM(j.version), 0L),"
+            + " (SELECT COALESCE(SUM(v.version), 0L) FROM Usuario v WHERE v.id IN ("
+            + USUARIOS_POR_NOMBRE_IGNORE_CASE + ")))"
+            + " FROM Jugadas j WHERE j.usuario.id IN (" + USUARIOS_POR_NOMBRE_IGNORE_CASE + ")")
+    EstadoListado findEstadoListadoByUsuarioNombreIgnoreCase(@Param("patron") String patron);
+
     List<Jugadas> findByFen(String fen);
+
+    // Jugadas hechas desde la posición: se busca por la posición previa, no por la resultante
+    @EntityGraph(attributePaths = "usuario")
+    Page<Jugadas> findByPosicionPreviaHash(Long posicionPreviaHash, Pageable pageable);
+
+    boolean existsByUsuarioIdAndPosicionHash(Long usuarioId, Long posicionHash);
+
+    /**
+     * Bloque de la exportación recorrido por keyset sobre (createdAt, id)
+     * ascendente: cada llamada es una lectura corta e independiente, nunca un
+     * cursor abierto durante toda la descarga. El orden es el de juego; el id
+     * solo desempata, porque los bloques de ids que reservan Hibernate y la
+     * importación masiva se intercalan. El rango de fechas llega siempre (sin
+     * filtro, con límites que abarcan toda la tabla) en lugar de ":desde IS
+     * NULL OR ...": así, cuando el cliente acota las fechas, PostgreSQL descarta
+     * las particiones de fuera. Sin filtro no se descarta ninguna por el rango,
+     * solo las anteriores a :ultimaCreada a medida que avanza el recorrido.
+     */
+    @Query("SELECT j FROM Jugadas j JOIN FETCH j.usuario u"
+            + " WHERE j.createdAt >= :ultimaCreada AND (j.createdAt > :ultimaCreada OR j.id > :ultimoId)"
+            + " AND (:usuarioId IS NULL OR u.id = :usuarioId)"
+            + " AND j.createdAt >= :desde AND j.createdAt < :hasta"
+            + " ORDER BY j.createdAt ASC, j.id ASC")
+    List<Jugadas> findBloqueExportacion(@Param("ultimaCreada") LocalDateTime ultimaCreada,
+            @Param("ultimoId") Long ultimoId,
+            @Param("usuarioId") Long usuarioId,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta,
+            Limit limit);
 }
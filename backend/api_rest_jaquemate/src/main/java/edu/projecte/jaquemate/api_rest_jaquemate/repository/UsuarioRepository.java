@@ -1,8 +1,12 @@
 package edu.projecte.jaquemate.api_rest_jaquemate.repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Usuario;
@@ -17,4 +21,7 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     boolean existsByUsuario(String usuario);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.usuario, u.email FROM Usuario u")
+    Stream<Object[]> streamUsuariosYEmails();
 }
@@ -0,0 +1,68 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.security;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Valida el token Bearer de la petición sin acceder a la BD y deja el id del
+ * usuario autenticado en el atributo {@link #ATRIBUTO_USUARIO_ID}. Un token
+ * inválido siempre se rechaza; la ausencia de token solo se rechaza si
+ * jaquemate.auth.obligatorio está activo.
+ */
+@Component
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String ATRIBUTO_USUARIO_ID = "jaquemate.usuarioId";
+
+    private static final String PREFIJO_BEARER = "Bearer ";
+
+    private final TokenService tokenService;
+    private final boolean obligatorio;
+
+    public TokenAuthenticationFilter(TokenService tokenService,
+            @Value("${jaquemate.auth.obligatorio:false}") boolean obligatorio) {
+        this.tokenService = tokenService;
+        this.obligatorio = obligatorio;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        return !ruta.startsWith("/api/")
+                || "OPTIONS".equals(request.getMethod())
+                || ruta.equals("/api/v1/usuarios/login")
+                || ruta.equals("/api/v1/usuarios/registro")
+                || ruta.startsWith("/api/v1/usuarios/existe/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String cabecera = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        if (cabecera != null && cabecera.startsWith(PREFIJO_BEARER)) {
+            Optional<Long> usuarioId = tokenService.validarToken(cabecera.substring(PREFIJO_BEARER.length()));
+            if (usuarioId.isEmpty()) {
+                response.sendError(HttpStatus.UNAUTHORIZED.value(), "Token inválido o caducado");
+                return;
+            }
+            request.setAttribute(ATRIBUTO_USUARIO_ID, usuarioId.get());
+        } else if (obligatorio) {
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), "Token requerido");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,116 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.UsuarioInfo;
+
+/**
+ * Tokens de sesión firmados con HMAC-SHA256 (formato JWT HS256). El token lleva
+ * el id del usuario y la caducidad, de modo que validarlo no requiere acceder a
+ * la BD.
+ * <p>
+ * El secreto se comprueba al arrancar: HS256 necesita al menos 32 bytes de
+ * clave y el valor de desarrollo de application.properties no se admite cuando
+ * el token es obligatorio.
+ */
+@Component
+public class TokenService {
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final int LONGITUD_MINIMA_SECRETO = 32;
+    private static final String SECRETO_DESARROLLO = "devSecretKeyForJaqueMateLocalDevelopmentOnly123456789";
+    private static final String CABECERA = base64Url("{\"alg\":\"HS256\",\"typ\":\"JWT\"}"
+            .getBytes(StandardCharsets.UTF_8));
+
+    private final SecretKeySpec clave;
+    private final Duration expiracion;
+    private final ObjectMapper objectMapper;
+
+    public TokenService(@Value("${jaquemate.auth.secret}") String secreto,
+            @Value("${jaquemate.auth.expiracion:8h}") Duration expiracion,
+            @Value("${jaquemate.auth.obligatorio:false}") boolean obligatorio,
+            ObjectMapper objectMapper) {
+        byte[] bytesSecreto = secreto.getBytes(StandardCharsets.UTF_8);
+        if (bytesSecreto.length < LONGITUD_MINIMA_SECRETO) {
+            throw new IllegalStateException("jaquemate.auth.secret (JWT_SECRET) debe tener al menos "
+                    + LONGITUD_MINIMA_SECRETO + " bytes");
+        }
+        if (obligatorio && SECRETO_DESARROLLO.equals(secreto)) {
+            throw new IllegalStateException(
+                    "jaquemate.auth.obligatorio=true requiere definir JWT_SECRET con un secreto propio");
+        }
+        this.clave = new SecretKeySpec(bytesSecreto, ALGORITMO);
+        this.expiracion = expiracion;
+        this.objectMapper = objectMapper;
+    }
+
+    public String generarToken(UsuarioInfo usuario) {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", usuario.getId().toString());
+        claims.put("usuario", usuario.getUsuario());
+        claims.put("exp", Instant.now().plus(expiracion).getEpochSecond());
+
+        try {
+            String cuerpo = CABECERA + "." + base64Url(objectMapper.writeValueAsBytes(claims));
+            return cuerpo + "." + base64Url(firmar(cuerpo));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo generar el token", e);
+        }
+    }
+
+    /**
+     * @return id del usuario si la firma es correcta y el token no ha caducado
+     */
+    public Optional<Long> validarToken(String token) {
+        String[] partes = token.split("\\.");
+        if (partes.length != 3 || !CABECERA.equals(partes[0])) {
+            return Optional.empty();
+        }
+        try {
+            byte[] firmaRecibida = Base64.getUrlDecoder().decode(partes[2]);
+            if (!MessageDigest.isEqual(firmaRecibida, firmar(partes[0] + "." + partes[1]))) {
+                return Optional.empty();
+            }
+            JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(partes[1]));
+            if (claims.path("exp").asLong(0) < Instant.now().getEpochSecond()) {
+                return Optional.empty();
+            }
+            return Optional.of(Long.valueOf(claims.path("sub").asText()));
+        } catch (IllegalArgumentException | IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] firmar(String contenido) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(clave);
+            return mac.doFinal(contenido.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo firmar el token", e);
+        }
+    }
+
+    private static String base64Url(byte[] datos) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(datos);
+    }
+}
@@ -0,0 +1,32 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.services;
+
+import java.util.Map;
+
+import org.springframework.lang.NonNull;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.MovimientoExploradorId;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ExploradorRespuesta;
+
+public interface ExploradorService {
+
+    ExploradorRespuesta getMovimientos(@NonNull String fen, int limite);
+
+    /**
+     * @param posicionHash hash de la posición desde la que se hizo la jugada
+     *                     (posicion_previa_hash), no de la resultante
+     */
+    void registrarMovimiento(Long posicionHash, String moveUciFrom, String moveUciTo);
+
+    /**
+     * Suma de una vez los contadores de un bloque de importación, agrupados por
+     * (posición, movimiento).
+     */
+    void registrarMovimientos(@NonNull Map<MovimientoExploradorId, Long> veces);
+
+    void descontarMovimiento(Long posicionHash, String moveUciFrom, String moveUciTo);
+
+    /**
+     * Resta de una vez los contadores de un bloque de jugadas borradas.
+     */
+    void descontarMovimientos(@NonNull Map<MovimientoExploradorId, Long> veces);
+}
@@ -0,0 +1,33 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.services;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.springframework.lang.NonNull;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoImportacion;
+
+public interface ImportacionService {
+
+    /**
+     * Encola la importación del CSV ya guardado en disco. El fichero pasa a ser
+     * responsabilidad del trabajo, que lo borra al terminar (o al rechazarse).
+     *
+     * @return el estado inicial del trabajo, con su id
+     */
+    EstadoImportacion iniciarImportacion(@NonNull Long usuarioId, @NonNull Path fichero);
+
+    /**
+     * Igual que {@link #iniciarImportacion} para una base de partidas PGN: cada
+     * movimiento de la línea principal se guarda como una jugada.
+     */
+    EstadoImportacion iniciarImportacionPgn(@NonNull Long usuarioId, @NonNull Path fichero);
+
+    Optional<EstadoImportacion> getEstado(@NonNull String id);
+
+    /**
+     * Pide la cancelación: el trabajo se detiene al terminar el bloque en curso.
+     * Los bloques ya confirmados se mantienen.
+     */
+    Optional<EstadoImportacion> cancelarImportacion(@NonNull String id);
+}
@@ -1,33 +1,129 @@
 package edu.projecte.jaquemate.api_rest_jaquemate.services;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
 
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.CursorPagina;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoListado;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaCreate;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaInfo;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaList;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.PaginaCursorDto;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.PaginaDto;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ResultadoBloque;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ResultadoBorrado;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ResultadoImportacion;
 
 public interface JugadaService {
 
-    PaginaDto<JugadaList> findAll(@NonNull Pageable paging);
+    /*
+     * Listados con OFFSET. El total lo aporta quien llama, ya contado por
+     * getEstadoListado para el ETag, y la página no repite el COUNT.
+     */
+    PaginaDto<JugadaList> findAll(@NonNull Pageable paging, long total);
 
-    PaginaDto<JugadaList> findByUsuarioId(@NonNull Long usuarioId, @NonNull Pageable paging);
+    PaginaDto<JugadaList> findByUsuarioId(@NonNull Long usuarioId, @NonNull Pageable paging, long total);
 
-    PaginaDto<JugadaList> findByUsuarioNombre(@NonNull String nombre, @NonNull Pageable paging);
+    PaginaDto<JugadaList> findByUsuarioNombre(@NonNull String nombre, boolean ignorarMayusculas,
+            @NonNull Pageable paging, long total);
+
+    /*
+     * Paginación por cursor: sin OFFSET ni COUNT. Un cursor null indica la
+     * primera página.
+     */
+    PaginaCursorDto<JugadaList> findAllTrasCursor(CursorPagina cursor, int size);
+
+    PaginaCursorDto<JugadaList> findByUsuarioIdTrasCursor(@NonNull Long usuarioId, CursorPagina cursor, int size);
+
+    PaginaCursorDto<JugadaList> findByUsuarioNombreTrasCursor(@NonNull String nombre, boolean ignorarMayusculas,
+            CursorPagina cursor, int size);
+
+    /**
+     * Jugadas realizadas desde la posición del FEN, buscadas por el hash Zobrist
+     * de la posición anterior a cada jugada (coinciden también las
+     * transposiciones que solo difieren en los contadores).
+     */
+    PaginaDto<JugadaList> findByPosicion(@NonNull String fen, @NonNull Pageable paging);
 
     Optional<JugadaInfo> findById(@NonNull Long id);
 
+    /**
+     * Versión actual de la jugada, sin cargarla, para validar su ETag.
+     */
+    Optional<Long> findVersion(@NonNull Long id);
+
+    /**
+     * Resumen de las jugadas de un listado para validar su ETag sin leer la página.
+     *
+     * @param usuarioId solo las jugadas del usuario; null para todas
+     */
+    EstadoListado getEstadoListado(Long usuarioId);
+
+    EstadoListado getEstadoListadoPorNombre(@NonNull String nombre, boolean ignorarMayusculas);
+
     JugadaInfo crearJugada(@NonNull JugadaCreate jugadaCreate);
 
-    List<JugadaInfo> crearJugadasBatch(@NonNull List<JugadaCreate> jugadas);
+    /**
+     * Importa las jugadas de un usuario en bloques, cada uno en su propia
+     * transacción, e informa de las filas aceptadas y rechazadas por bloque.
+     */
+    ResultadoImportacion importarJugadas(@NonNull Long usuarioId, @NonNull List<JugadaCreate> jugadas);
 
-    void eliminarJugada(@NonNull Long id);
+    /**
+     * Inserta un único bloque en su propia transacción. Las filas incompletas
+     * se rechazan; si la inserción falla se rechaza el bloque entero.
+     */
+    ResultadoBloque importarBloque(int numero, @NonNull Long usuarioId, @NonNull List<JugadaCreate> bloque);
+
+    /**
+     * @return false si la jugada no existía
+     */
+    boolean eliminarJugada(@NonNull Long id);
+
+    /**
+     * Borrados masivos con DELETE por conjuntos en bloques acotados, cada uno
+     * en su propia transacción junto con el descuento del explorador de
+     * aperturas.
+     */
+    ResultadoBorrado eliminarJugadas(@NonNull List<Long> ids);
+
+    /**
+     * @param desde inicio del rango de createdAt (incluido); null sin límite
+     * @param hasta fin del rango de createdAt (excluido); null sin límite
+     */
+    ResultadoBorrado eliminarJugadasDeUsuario(@NonNull Long usuarioId, LocalDateTime desde, LocalDateTime hasta);
+
+    ResultadoBorrado eliminarJugadasEntre(@NonNull LocalDateTime desde, @NonNull LocalDateTime hasta);
 
     Optional<JugadaInfo> actualizarJugada(@NonNull Long id, @NonNull JugadaCreate jugadaCreate);
 
-    List<JugadaList> exportarTodas();
+    /**
+     * Recorre las jugadas que cumplen los filtros (todos opcionales) y entrega
+     * al consumidor bloques de tamaño acotado, en orden de creación.
+     */
+    void exportarJugadas(Long usuarioId, LocalDateTime desde, LocalDateTime hasta,
+            @NonNull Consumer<List<JugadaList>> consumidor);
+
+    /**
+     * Comprueba el usuario y el FEN del filtro antes de empezar la descarga,
+     * para que los errores lleguen como 404 o 400 y no a mitad de respuesta.
+     *
+     * @param fen posición por la que deben pasar las partidas; null sin filtro
+     * @return el hash de la posición, o null si no hay filtro
+     */
+    Long prepararExportacionPgn(@NonNull Long usuarioId, String fen);
+
+    /**
+     * Regenera las partidas del usuario a partir de sus jugadas y entrega cada
+     * una en PGN. Las jugadas se leen por bloques, igual que en
+     * {@link #exportarJugadas}, y solo la partida en curso queda en memoria.
+     *
+     * @param posicionHash solo las partidas que pasan por esa posición; null para todas
+     */
+    void exportarPartidasPgn(@NonNull Long usuarioId, Long posicionHash, @NonNull Consumer<String> consumidor);
 }
@@ -21,7 +21,12 @@ public interface UsuarioService {
 
     boolean existsByEmail(@NonNull String email);
 
-    boolean comprobarLogin(@NonNull LoginUsuario loginUsuario);
+    /**
+     * Comprueba las credenciales con una única consulta.
+     *
+     * @return el usuario autenticado, o vacío si las credenciales no son válidas
+     */
+    Optional<UsuarioInfo> autenticar(@NonNull LoginUsuario loginUsuario);
 
     UsuarioInfo crearUsuario(@NonNull UsuarioCreate usuarioCreate);
 
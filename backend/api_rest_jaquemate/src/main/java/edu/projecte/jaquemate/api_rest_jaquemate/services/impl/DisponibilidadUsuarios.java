@@ -0,0 +1,71 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.services.impl;
+
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.helper.FiltroBloom;
+import edu.projecte.jaquemate.api_rest_jaquemate.repository.UsuarioRepository;
+
+/**
+ * Filtros de Bloom con los nombres de usuario y emails registrados. Permiten
+ * responder "no existe" a las comprobaciones de disponibilidad del registro
+ * sin consultar la BD; solo los posibles positivos llegan a existsBy*.
+ * Hasta que termina la carga inicial todas las consultas pasan a la BD.
+ */
+@Component
+public class DisponibilidadUsuarios {
+
+    private static final Logger log = LoggerFactory.getLogger(DisponibilidadUsuarios.class);
+
+    private final UsuarioRepository usuarioRepository;
+    private final FiltroBloom usuarios;
+    private final FiltroBloom emails;
+    private volatile boolean cargado = false;
+
+    public DisponibilidadUsuarios(UsuarioRepository usuarioRepository,
+            @Value("${jaquemate.disponibilidad.capacidad:1000000}") long capacidad,
+            @Value("${jaquemate.disponibilidad.probabilidad-falso-positivo:0.01}") double probabilidadFp) {
+        this.usuarioRepository = usuarioRepository;
+        this.usuarios = new FiltroBloom(capacidad, probabilidadFp);
+        this.emails = new FiltroBloom(capacidad, probabilidadFp);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void cargar() {
+        long total = 0;
+        try (Stream<Object[]> filas = usuarioRepository.streamUsuariosYEmails()) {
+            for (Object[] fila : (Iterable<Object[]>) filas::iterator) {
+                usuarios.agregar((String) fila[0]);
+                emails.agregar((String) fila[1]);
+                total++;
+            }
+        }
+        cargado = true;
+        log.info("Filtros de disponibilidad cargados con {} usuarios", total);
+    }
+
+    public void registrar(String usuario, String email) {
+        if (usuario != null) {
+            usuarios.agregar(usuario);
+        }
+        if (email != null) {
+            emails.agregar(email);
+        }
+    }
+
+    public boolean puedeExistirUsuario(String usuario) {
+        return !cargado || usuarios.puedeContener(usuario);
+    }
+
+    public boolean puedeExistirEmail(String email) {
+        return !cargado || emails.puedeContener(email);
+    }
+}
@@ -0,0 +1,47 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.services.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * Flujo que avisa de los bytes leídos del fichero. El progreso de una
+ * importación se compara con el tamaño del fichero en bytes, así que se cuenta
+ * por debajo del lector de texto: las longitudes de línea son caracteres UTF-16
+ * y no incluyen el salto de línea real.
+ */
+final class EntradaContada extends FilterInputStream {
+
+    private final LongConsumer bytesLeidos;
+
+    EntradaContada(InputStream entrada, LongConsumer bytesLeidos) {
+        super(entrada);
+        this.bytesLeidos = bytesLeidos;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int dato = super.read();
+        if (dato >= 0) {
+            bytesLeidos.accept(1);
+        }
+        return dato;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int leidos = super.read(b, off, len);
+        if (leidos > 0) {
+            bytesLeidos.accept(leidos);
+        }
+        return leidos;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long saltados = super.skip(n);
+        bytesLeidos.accept(saltados);
+        return saltados;
+    }
+}
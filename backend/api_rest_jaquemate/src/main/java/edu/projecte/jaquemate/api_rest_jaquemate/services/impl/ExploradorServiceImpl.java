@@ -0,0 +1,85 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.services.impl;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.Zobrist;
+import edu.projecte.jaquemate.api_rest_jaquemate.exceptions.FenInvalidoException;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.MovimientoExplorador;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.MovimientoExploradorId;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ExploradorRespuesta;
+import edu.projecte.jaquemate.api_rest_jaquemate.repository.ExploradorRepository;
+import edu.projecte.jaquemate.api_rest_jaquemate.repository.JugadasBulkRepository;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.ExploradorService;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.mapper.ExploradorMapper;
+
+@Service
+public class ExploradorServiceImpl implements ExploradorService {
+
+    private final ExploradorRepository exploradorRepository;
+    private final JugadasBulkRepository jugadasBulkRepository;
+
+    public ExploradorServiceImpl(ExploradorRepository exploradorRepository,
+            JugadasBulkRepository jugadasBulkRepository) {
+        this.exploradorRepository = exploradorRepository;
+        this.jugadasBulkRepository = jugadasBulkRepository;
+    }
+
+    @Override
+    public ExploradorRespuesta getMovimientos(@NonNull String fen, int limite) {
+        long posicionHash;
+        try {
+            posicionHash = Zobrist.hashFen(fen);
+        } catch (IllegalArgumentException e) {
+            throw new FenInvalidoException("FEN_INVALIDO", "FEN no válido: " + e.getMessage());
+        }
+
+        List<MovimientoExplorador> movimientos = exploradorRepository
+                .findByIdPosicionHashOrderByVecesDesc(posicionHash, Limit.of(limite));
+        return new ExploradorRespuesta(fen, posicionHash,
+                ExploradorMapper.INSTANCE.movimientosToMovimientoInfo(movimientos));
+    }
+
+    @Override
+    @Transactional
+    public void registrarMovimiento(Long posicionHash, String moveUciFrom, String moveUciTo) {
+        if (esContabilizable(posicionHash, moveUciFrom, moveUciTo)) {
+            exploradorRepository.sumarVeces(posicionHash, moveUciFrom, moveUciTo, 1);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void registrarMovimientos(@NonNull Map<MovimientoExploradorId, Long> veces) {
+        if (!veces.isEmpty()) {
+            jugadasBulkRepository.acumularExplorador(veces);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void descontarMovimiento(Long posicionHash, String moveUciFrom, String moveUciTo) {
+        if (esContabilizable(posicionHash, moveUciFrom, moveUciTo)) {
+            exploradorRepository.restarVeces(posicionHash, moveUciFrom, moveUciTo, 1);
+            exploradorRepository.eliminarSiVacio(posicionHash, moveUciFrom, moveUciTo);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void descontarMovimientos(@NonNull Map<MovimientoExploradorId, Long> veces) {
+        if (!veces.isEmpty()) {
+            jugadasBulkRepository.descontarExplorador(veces);
+        }
+    }
+
+    // Las jugadas sin hash (FEN no válido) o sin movimiento no entran en el explorador
+    private boolean esContabilizable(Long posicionHash, String moveUciFrom, String moveUciTo) {
+        return posicionHash != null && moveUciFrom != null && moveUciTo != null;
+    }
+}
@@ -0,0 +1,289 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.services.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.LectorPgn;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.PartidaPgn;
+import edu.projecte.jaquemate.api_rest_jaquemate.exceptions.ImportacionSaturadaException;
+import edu.projecte.jaquemate.api_rest_jaquemate.exceptions.UsuarioNotFoundException;
+import edu.projecte.jaquemate.api_rest_jaquemate.helper.CsvHelper;
+import edu.projecte.jaquemate.api_rest_jaquemate.helper.PgnHelper;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoImportacion;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoTrabajoImportacion;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.FormatoImportacion;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaCreate;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaCsvImport;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.ImportacionService;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.JugadaService;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.UsuarioService;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Importaciones CSV y PGN en segundo plano. Cada trabajo lee el fichero
+ * temporal en streaming (línea a línea o partida a partida) y confirma bloques
+ * de jugadas con
+ * {@link JugadaService#importarBloque}, así que la memoria usada depende del
+ * tamaño de bloque y no del fichero. El pool es acotado: si la cola está
+ * llena la importación se rechaza con 503 en lugar de acumularse.
+ */
+@Service
+public class ImportacionServiceImpl implements ImportacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacionServiceImpl.class);
+    private static final long ESPERA_PARADA_SEGUNDOS = 5;
+
+    private final JugadaService jugadaService;
+    private final UsuarioService usuarioService;
+    private final MetricasTransferencia metricasTransferencia;
+    private final int tamanoBloque;
+    private final Duration retencion;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, TrabajoImportacion> trabajos = new ConcurrentHashMap<>();
+
+    public ImportacionServiceImpl(JugadaService jugadaService, UsuarioService usuarioService,
+            MetricasTransferencia metricasTransferencia,
+            @Value("${jaquemate.importacion.tamano-bloque:1000}") int tamanoBloque,
+            @Value("${jaquemate.importacion.trabajos.hilos:2}") int hilos,
+            @Value("${jaquemate.importacion.trabajos.cola:16}") int cola,
+            @Value("${jaquemate.importacion.trabajos.retencion:1h}") Duration retencion) {
+        this.jugadaService = jugadaService;
+        this.usuarioService = usuarioService;
+        this.metricasTransferencia = metricasTransferencia;
+        this.tamanoBloque = tamanoBloque;
+        this.retencion = retencion;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola), tarea -> {
+                    Thread hilo = new Thread(tarea, "importacion-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+    }
+
+    @Override
+    public EstadoImportacion iniciarImportacion(@NonNull Long usuarioId, @NonNull Path fichero) {
+        return encolar(usuarioId, FormatoImportacion.CSV, fichero);
+    }
+
+    @Override
+    public EstadoImportacion iniciarImportacionPgn(@NonNull Long usuarioId, @NonNull Path fichero) {
+        return encolar(usuarioId, FormatoImportacion.PGN, fichero);
+    }
+
+    private EstadoImportacion encolar(Long usuarioId, FormatoImportacion formato, Path fichero) {
+        try {
+            if (usuarioService.getById(usuarioId).isEmpty()) {
+                throw new UsuarioNotFoundException("USUARIO_NOT_FOUND",
+                        "Usuario con id " + usuarioId + " no encontrado");
+            }
+            purgarTerminados();
+
+            TrabajoImportacion trabajo = new TrabajoImportacion(UUID.randomUUID().toString(), usuarioId, formato, fichero,
+                    Files.size(fichero));
+            trabajos.put(trabajo.getId(), trabajo);
+            try {
+                executor.execute(() -> ejecutar(trabajo));
+            } catch (RejectedExecutionException e) {
+                trabajos.remove(trabajo.getId());
+                throw new ImportacionSaturadaException("IMPORTACION_SATURADA",
+                        "Hay demasiadas importaciones en curso, inténtalo más tarde");
+            }
+            return trabajo.toEstado();
+        } catch (IOException e) {
+            borrar(fichero);
+            throw new IllegalStateException("No se pudo leer el fichero de importación", e);
+        } catch (RuntimeException e) {
+            borrar(fichero);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<EstadoImportacion> getEstado(@NonNull String id) {
+        return Optional.ofNullable(trabajos.get(id)).map(TrabajoImportacion::toEstado);
+    }
+
+    @Override
+    public Optional<EstadoImportacion> cancelarImportacion(@NonNull String id) {
+        TrabajoImportacion trabajo = trabajos.get(id);
+        if (trabajo == null) {
+            return Optional.empty();
+        }
+        trabajo.pedirCancelacion();
+        return Optional.of(trabajo.toEstado());
+    }
+
+    private void ejecutar(TrabajoImportacion trabajo) {
+        if (trabajo.isCancelacionPedida()) {
+            trabajo.terminar(EstadoTrabajoImportacion.CANCELADO);
+            borrar(trabajo.getFichero());
+            return;
+        }
+
+        trabajo.iniciar();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new EntradaContada(Files.newInputStream(trabajo.getFichero()), trabajo::leerBytes),
+                StandardCharsets.UTF_8))) {
+            if (trabajo.getFormato() == FormatoImportacion.PGN) {
+                leerPgn(trabajo, reader);
+            } else {
+                leerCsv(trabajo, reader);
+            }
+            trabajo.terminar(trabajo.isCancelacionPedida()
+                    ? EstadoTrabajoImportacion.CANCELADO
+                    : EstadoTrabajoImportacion.COMPLETADO);
+        } catch (IOException | RuntimeException e) {
+            log.error("Importación {} interrumpida", trabajo.getId(), e);
+            trabajo.fallar(e.getMessage());
+        } finally {
+            borrar(trabajo.getFichero());
+            metricasTransferencia.registrarImportacion(trabajo.getAceptadas(), trabajo.getRechazadas(),
+                    trabajo.getDuracionNanos());
+        }
+    }
+
+    private void leerCsv(TrabajoImportacion trabajo, BufferedReader reader) throws IOException {
+        // La primera línea es la cabecera
+        String line = reader.readLine();
+
+        long numeroLinea = 1;
+        Bloques bloques = new Bloques(trabajo);
+        while (!trabajo.isCancelacionPedida() && (line = reader.readLine()) != null) {
+            numeroLinea++;
+            if (line.isBlank()) {
+                continue;
+            }
+            trabajo.leerFilas(1);
+
+            JugadaCsvImport csvRow = CsvHelper.parsearLineaImportacion(line);
+            if (csvRow == null) {
+                trabajo.rechazarLinea(numeroLinea, "se esperaban las columnas fen,jugada");
+                continue;
+            }
+            bloques.anadir(CsvHelper.crearJugada(trabajo.getUsuarioId(), csvRow));
+        }
+        bloques.terminar();
+    }
+
+    /*
+     * Cada partida se expande en una fila por movimiento. Solo se tiene en
+     * memoria la partida en curso y el bloque pendiente de confirmar.
+     */
+    private void leerPgn(TrabajoImportacion trabajo, BufferedReader reader) throws IOException {
+        LectorPgn lector = new LectorPgn(reader);
+        Bloques bloques = new Bloques(trabajo);
+        PartidaPgn partida;
+        while (!trabajo.isCancelacionPedida() && (partida = lector.siguiente()) != null) {
+            int total = partida.getJugadas().size();
+            trabajo.leerFilas(total);
+
+            List<JugadaCreate> filas;
+            try {
+                filas = PgnHelper.expandirPartida(trabajo.getUsuarioId(), partida);
+            } catch (IllegalArgumentException e) {
+                trabajo.rechazarFilas(total, partida.getLinea(), "etiqueta FEN no válida: " + e.getMessage());
+                continue;
+            }
+            if (filas.size() < total) {
+                trabajo.rechazarFilas(total - filas.size(), partida.getLinea(),
+                        "jugada " + (filas.size() + 1) + " (" + partida.getJugadas().get(filas.size())
+                                + ") no es legal; se descarta el resto de la partida");
+            }
+            filas.forEach(bloques::anadir);
+        }
+        bloques.terminar();
+    }
+
+    /*
+     * Acumula las filas leídas y confirma un bloque cada tamanoBloque filas.
+     */
+    private class Bloques {
+        private final TrabajoImportacion trabajo;
+        private List<JugadaCreate> pendientes = new ArrayList<>(tamanoBloque);
+        private int numero = 0;
+
+        Bloques(TrabajoImportacion trabajo) {
+            this.trabajo = trabajo;
+        }
+
+        void anadir(JugadaCreate jugada) {
+            pendientes.add(jugada);
+            if (pendientes.size() == tamanoBloque) {
+                confirmar();
+            }
+        }
+
+        void terminar() {
+            if (!pendientes.isEmpty() && !trabajo.isCancelacionPedida()) {
+                confirmar();
+            }
+        }
+
+        private void confirmar() {
+            trabajo.sumarBloque(jugadaService.importarBloque(numero++, trabajo.getUsuarioId(), pendientes));
+            pendientes = new ArrayList<>(tamanoBloque);
+        }
+    }
+
+    private void purgarTerminados() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencion);
+        trabajos.values().removeIf(trabajo -> trabajo.isTerminado() && trabajo.getTerminado().isBefore(limite));
+    }
+
+    private static void borrar(Path fichero) {
+        try {
+            Files.deleteIfExists(fichero);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el fichero temporal {}", fichero, e);
+        }
+    }
+
+    /*
+     * Los hilos son daemon: lo que quede en la cola no llegaría a ejecutarse y
+     * su fichero temporal se quedaría en disco. Se vacía la cola, se borran los
+     * ficheros de los trabajos sin empezar y se da un margen a los que están en
+     * curso para que vean la cancelación y borren el suyo.
+     */
+    @PreDestroy
+    public void detener() {
+        trabajos.values().forEach(TrabajoImportacion::pedirCancelacion);
+        executor.shutdownNow();
+        for (TrabajoImportacion trabajo : trabajos.values()) {
+            if (!trabajo.isIniciado() && !trabajo.isTerminado()) {
+                trabajo.terminar(EstadoTrabajoImportacion.CANCELADO);
+                borrar(trabajo.getFichero());
+            }
+        }
+        try {
+            if (!executor.awaitTermination(ESPERA_PARADA_SEGUNDOS, TimeUnit.SECONDS)) {
+                log.warn("Quedan importaciones en curso al detener la aplicación");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,40 +1,103 @@
 package edu.projecte.jaquemate.api_rest_jaquemate.services.impl;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.JugadaDerivada;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.ValidadorJugadas;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.Zobrist;
+import edu.projecte.jaquemate.api_rest_jaquemate.exceptions.FenInvalidoException;
+import edu.projecte.jaquemate.api_rest_jaquemate.exceptions.JugadaIlegalException;
 import edu.projecte.jaquemate.api_rest_jaquemate.exceptions.UsuarioNotFoundException;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Jugadas;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.MovimientoExploradorId;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Usuario;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.CursorPagina;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoListado;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaCreate;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaInfo;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaList;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.PaginaCursorDto;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.PaginaDto;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ResultadoBloque;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ResultadoBorrado;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ResultadoImportacion;
+import edu.projecte.jaquemate.api_rest_jaquemate.repository.JugadasBulkRepository;
 import edu.projecte.jaquemate.api_rest_jaquemate.repository.JugadasRepository;
 import edu.projecte.jaquemate.api_rest_jaquemate.repository.UsuarioRepository;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.ExploradorService;
 import edu.projecte.jaquemate.api_rest_jaquemate.services.JugadaService;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.UsuarioService;
 import edu.projecte.jaquemate.api_rest_jaquemate.services.mapper.JugadaMapper;
 
 @Service
 public class JugadaServiceImpl implements JugadaService {
 
+    // Posición anterior a cualquier jugada real: la primera página usa la misma consulta
+    private static final CursorPagina CURSOR_INICIAL = new CursorPagina(
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    // Límites cuando no se filtra por fechas (exportaciones, borrados): abarcan todas las particiones
+    private static final LocalDateTime RANGO_DESDE = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime RANGO_HASTA = CURSOR_INICIAL.getCreatedAt();
+
     private final JugadasRepository jugadasRepository;
     private final UsuarioRepository usuarioRepository;
+    private final UsuarioService usuarioService;
+    private final JugadasBulkRepository jugadasBulkRepository;
+    private final ExploradorService exploradorService;
+    private final TransactionTemplate transactionTemplate;
+    private final MetricasTransferencia metricasTransferencia;
+    private final int tamanoBloqueExportacion;
+    private final int tamanoBloqueImportacion;
+    private final int tamanoBloqueBorrado;
+    private final boolean validarLegalidad;
+    private final int umbralDerivacionParalela;
 
-    public JugadaServiceImpl(JugadasRepository jugadasRepository, UsuarioRepository usuarioRepository) {
+    public JugadaServiceImpl(JugadasRepository jugadasRepository, UsuarioRepository usuarioRepository,
+            UsuarioService usuarioService, JugadasBulkRepository jugadasBulkRepository, ExploradorService exploradorService,
+            PlatformTransactionManager transactionManager, MetricasTransferencia metricasTransferencia,
+            @Value("${jaquemate.exportacion.tamano-bloque:1000}") int tamanoBloqueExportacion,
+            @Value("${jaquemate.importacion.tamano-bloque:1000}") int tamanoBloqueImportacion,
+            @Value("${jaquemate.borrado.tamano-bloque:5000}") int tamanoBloqueBorrado,
+            @Value("${jaquemate.jugadas.validar-legalidad:true}") boolean validarLegalidad,
+            @Value("${jaquemate.importacion.derivacion.umbral-paralelo:500}") int umbralDerivacionParalela) {
         this.jugadasRepository = jugadasRepository;
         this.usuarioRepository = usuarioRepository;
+        this.usuarioService = usuarioService;
+        this.jugadasBulkRepository = jugadasBulkRepository;
+        this.exploradorService = exploradorService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.metricasTransferencia = metricasTransferencia;
+        this.tamanoBloqueExportacion = tamanoBloqueExportacion;
+        this.tamanoBloqueImportacion = tamanoBloqueImportacion;
+        this.tamanoBloqueBorrado = tamanoBloqueBorrado;
+        this.validarLegalidad = validarLegalidad;
+        this.umbralDerivacionParalela = umbralDerivacionParalela;
     }
 
     @Override
-    public PaginaDto<JugadaList> findAll(@NonNull Pageable paging) {
-        Page<Jugadas> paginaJugadasDb = jugadasRepository.findAll(paging);
+    public PaginaDto<JugadaList> findAll(@NonNull Pageable paging, long total) {
+        Page<Jugadas> paginaJugadasDb = new PageImpl<>(jugadasRepository.findPagina(paging), paging, total);
         return new PaginaDto<>(
                 paginaJugadasDb.getNumber(),
                 paginaJugadasDb.getSize(),
@@ -45,8 +108,9 @@ public class JugadaServiceImpl implements JugadaService {
     }
 
     @Override
-    public PaginaDto<JugadaList> findByUsuarioId(@NonNull Long usuarioId, @NonNull Pageable paging) {
-        Page<Jugadas> paginaJugadasDb = jugadasRepository.findByUsuarioId(usuarioId, paging);
+    public PaginaDto<JugadaList> findByUsuarioId(@NonNull Long usuarioId, @NonNull Pageable paging, long total) {
+        Page<Jugadas> paginaJugadasDb = new PageImpl<>(jugadasRepository.findPaginaByUsuarioId(usuarioId, paging),
+                paging, total);
         return new PaginaDto<>(
                 paginaJugadasDb.getNumber(),
                 paginaJugadasDb.getSize(),
@@ -57,8 +121,78 @@ public class JugadaServiceImpl implements JugadaService {
     }
 
     @Override
-    public PaginaDto<JugadaList> findByUsuarioNombre(@NonNull String nombre, @NonNull Pageable paging) {
-        Page<Jugadas> paginaJugadasDb = jugadasRepository.findByUsuarioNombreContaining(nombre, paging);
+    public PaginaDto<JugadaList> findByUsuarioNombre(@NonNull String nombre, boolean ignorarMayusculas,
+            @NonNull Pageable paging, long total) {
+        String patron = patronNombre(nombre);
+        Page<Jugadas> paginaJugadasDb = new PageImpl<>(ignorarMayusculas
+                ? jugadasRepository.findPaginaByUsuarioNombreIgnoreCase(patron, paging)
+                : jugadasRepository.findPaginaByUsuarioNombre(patron, paging), paging, total);
+        return new PaginaDto<>(
+                paginaJugadasDb.getNumber(),
+                paginaJugadasDb.getSize(),
+                paginaJugadasDb.getTotalElements(),
+                paginaJugadasDb.getTotalPages(),
+                JugadaMapper.INSTANCE.jugadasToJugadaList(paginaJugadasDb.getContent()),
+                paginaJugadasDb.getSort());
+    }
+
+    // El nombre se busca como subcadena literal: se escapan los comodines de LIKE
+    private static String patronNombre(String nombre) {
+        return nombre.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Override
+    public PaginaCursorDto<JugadaList> findAllTrasCursor(CursorPagina cursor, int size) {
+        CursorPagina desde = cursor != null ? cursor : CURSOR_INICIAL;
+        List<Jugadas> jugadasDb = jugadasRepository.findPaginaTrasCursor(
+                desde.getCreatedAt(), desde.getId(), Limit.of(size + 1));
+        return crearPaginaCursor(jugadasDb, size);
+    }
+
+    @Override
+    public PaginaCursorDto<JugadaList> findByUsuarioIdTrasCursor(@NonNull Long usuarioId, CursorPagina cursor,
+            int size) {
+        CursorPagina desde = cursor != null ? cursor : CURSOR_INICIAL;
+        List<Jugadas> jugadasDb = jugadasRepository.findPaginaTrasCursorByUsuarioId(
+                usuarioId, desde.getCreatedAt(), desde.getId(), Limit.of(size + 1));
+        return crearPaginaCursor(jugadasDb, size);
+    }
+
+    @Override
+    public PaginaCursorDto<JugadaList> findByUsuarioNombreTrasCursor(@NonNull String nombre,
+            boolean ignorarMayusculas, CursorPagina cursor, int size) {
+        String patron = patronNombre(nombre);
+        CursorPagina desde = cursor != null ? cursor : CURSOR_INICIAL;
+        List<Jugadas> jugadasDb = ignorarMayusculas
+                ? jugadasRepository.findPaginaTrasCursorByUsuarioNombreIgnoreCase(
+                        patron, desde.getCreatedAt(), desde.getId(), Limit.of(size + 1))
+                : jugadasRepository.findPaginaTrasCursorByUsuarioNombre(
+                        patron, desde.getCreatedAt(), desde.getId(), Limit.of(size + 1));
+        return crearPaginaCursor(jugadasDb, size);
+    }
+
+    // Se pide una fila de más para saber si existe página siguiente sin contar
+    private PaginaCursorDto<JugadaList> crearPaginaCursor(List<Jugadas> jugadasDb, int size) {
+        CursorPagina siguiente = null;
+        List<Jugadas> contenido = jugadasDb;
+        if (jugadasDb.size() > size) {
+            contenido = jugadasDb.subList(0, size);
+            Jugadas ultima = contenido.get(size - 1);
+            siguiente = new CursorPagina(ultima.getCreatedAt(), ultima.getId());
+        }
+        return new PaginaCursorDto<>(size, JugadaMapper.INSTANCE.jugadasToJugadaList(contenido), siguiente);
+    }
+
+    @Override
+    public PaginaDto<JugadaList> findByPosicion(@NonNull String fen, @NonNull Pageable paging) {
+        long posicionHash;
+        try {
+            posicionHash = Zobrist.hashFen(fen);
+        } catch (IllegalArgumentException e) {
+            throw new FenInvalidoException("FEN_INVALIDO", "FEN no válido: " + e.getMessage());
+        }
+
+        Page<Jugadas> paginaJugadasDb = jugadasRepository.findByPosicionPreviaHash(posicionHash, paging);
         return new PaginaDto<>(
                 paginaJugadasDb.getNumber(),
                 paginaJugadasDb.getSize(),
@@ -78,10 +212,30 @@ public class JugadaServiceImpl implements JugadaService {
     }
 
     @Override
+    public Optional<Long> findVersion(@NonNull Long id) {
+        return jugadasRepository.findVersionById(id);
+    }
+
+    @Override
+    public EstadoListado getEstadoListado(Long usuarioId) {
+        return usuarioId != null
+                ? jugadasRepository.findEstadoListadoByUsuarioId(usuarioId)
+                : jugadasRepository.findEstadoListado();
+    }
+
+    @Override
+    public EstadoListado getEstadoListadoPorNombre(@NonNull String nombre, boolean ignorarMayusculas) {
+        String patron = patronNombre(nombre);
+        return ignorarMayusculas
+                ? jugadasRepository.findEstadoListadoByUsuarioNombreIgnoreCase(patron)
+                : jugadasRepository.findEstadoListadoByUsuarioNombre(patron);
+    }
+
+    @Override
+    @Transactional
     public JugadaInfo crearJugada(@NonNull JugadaCreate jugadaCreate) {
-        Usuario usuario = usuarioRepository.findById(jugadaCreate.getUsuarioId())
-                .orElseThrow(() -> new UsuarioNotFoundException("USUARIO_NOT_FOUND",
-                        "Usuario con id " + jugadaCreate.getUsuarioId() + " no encontrado"));
+        validarJugada(jugadaCreate);
+        Usuario usuario = resolverUsuario(jugadaCreate.getUsuarioId());
 
         Jugadas jugada = Jugadas.builder()
                 .usuario(usuario)
@@ -90,52 +244,326 @@ public class JugadaServiceImpl implements JugadaService {
                 .moveUciTo(jugadaCreate.getMoveUciTo())
                 .fen(jugadaCreate.getFen())
                 .pgn(jugadaCreate.getPgn())
+                .posicionHash(Zobrist.hashFenOrNull(jugadaCreate.getFen()))
+                .posicionPreviaHash(hashPosicionPrevia(jugadaCreate))
                 .build();
 
         Jugadas jugadaGuardada = jugadasRepository.save(jugada);
+        exploradorService.registrarMovimiento(jugadaGuardada.getPosicionPreviaHash(),
+                jugadaGuardada.getMoveUciFrom(), jugadaGuardada.getMoveUciTo());
         return JugadaMapper.INSTANCE.jugadaToJugadaInfo(jugadaGuardada);
     }
 
     @Override
-    public List<JugadaInfo> crearJugadasBatch(@NonNull List<JugadaCreate> jugadas) {
-        List<JugadaInfo> resultado = new ArrayList<>();
-        for (JugadaCreate jugadaCreate : jugadas) {
-            resultado.add(crearJugada(jugadaCreate));
+    public ResultadoImportacion importarJugadas(@NonNull Long usuarioId, @NonNull List<JugadaCreate> jugadas) {
+        // El usuario se resuelve una sola vez para todo el lote
+        resolverUsuario(usuarioId);
+
+        long inicioImportacion = System.nanoTime();
+        List<ResultadoBloque> bloques = new ArrayList<>();
+        long totalAceptadas = 0;
+        long totalRechazadas = 0;
+
+        for (int inicio = 0; inicio < jugadas.size(); inicio += tamanoBloqueImportacion) {
+            List<JugadaCreate> bloque = jugadas.subList(inicio,
+                    Math.min(inicio + tamanoBloqueImportacion, jugadas.size()));
+            ResultadoBloque resultadoBloque = importarBloque(bloques.size(), usuarioId, bloque);
+            totalAceptadas += resultadoBloque.getAceptadas();
+            totalRechazadas += resultadoBloque.getRechazadas();
+            bloques.add(resultadoBloque);
+        }
+
+        metricasTransferencia.registrarImportacion(totalAceptadas, totalRechazadas,
+                System.nanoTime() - inicioImportacion);
+        return new ResultadoImportacion(totalAceptadas, totalRechazadas, bloques);
+    }
+
+    @Override
+    public ResultadoBloque importarBloque(int numero, @NonNull Long usuarioId, @NonNull List<JugadaCreate> bloque) {
+        // La derivación (SAN y FEN resultante) es CPU pura: los bloques grandes se reparten entre núcleos
+        Stream<JugadaCreate> filas = bloque.size() >= umbralDerivacionParalela
+                ? bloque.parallelStream()
+                : bloque.stream();
+        List<JugadaCreate> validas = filas
+                .map(this::prepararImportacion)
+                .filter(Objects::nonNull)
+                .toList();
+        int rechazadas = bloque.size() - validas.size();
+        if (validas.isEmpty()) {
+            return new ResultadoBloque(numero, 0, rechazadas, null);
+        }
+
+        List<Long> posicionHashes = new ArrayList<>(validas.size());
+        List<Long> posicionPreviaHashes = new ArrayList<>(validas.size());
+        Map<MovimientoExploradorId, Long> vecesExplorador = new HashMap<>();
+        for (JugadaCreate jugadaCreate : validas) {
+            posicionHashes.add(Zobrist.hashFenOrNull(jugadaCreate.getFen()));
+            // prepararImportacion solo deja el FEN previo si la jugada lleva de él al FEN guardado
+            Long posicionPreviaHash = Zobrist.hashFenOrNull(jugadaCreate.getFenPrevio());
+            posicionPreviaHashes.add(posicionPreviaHash);
+            if (posicionPreviaHash != null) {
+                vecesExplorador.merge(new MovimientoExploradorId(posicionPreviaHash,
+                        jugadaCreate.getMoveUciFrom(), jugadaCreate.getMoveUciTo()), 1L, Long::sum);
+            }
+        }
+
+        // Cada bloque se confirma por separado: un fallo solo descarta su bloque
+        try {
+            Integer insertadas = transactionTemplate.execute(status -> {
+                int filasInsertadas = jugadasBulkRepository.insertarBloque(usuarioId, validas, posicionHashes,
+                        posicionPreviaHashes);
+                exploradorService.registrarMovimientos(vecesExplorador);
+                return filasInsertadas;
+            });
+            return new ResultadoBloque(numero, insertadas != null ? insertadas : 0, rechazadas, null);
+        } catch (RuntimeException e) {
+            return new ResultadoBloque(numero, 0, bloque.size(), e.getMessage());
+        }
+    }
+
+    /*
+     * Las filas importadas traen el FEN previo y el UCI. Si la jugada es legal
+     * desde ese FEN se completa con el SAN y se guarda el FEN resultante, igual
+     * que una jugada hecha en el tablero de la aplicación. El FEN original se
+     * conserva como FEN previo, que es la clave del explorador.
+     *
+     * @return la jugada a insertar, o null si se rechaza
+     */
+    private JugadaCreate prepararImportacion(JugadaCreate jugadaCreate) {
+        boolean completa = jugadaCreate.getFen() != null && !jugadaCreate.getFen().isBlank()
+                && jugadaCreate.getMoveUciFrom() != null && !jugadaCreate.getMoveUciFrom().isBlank()
+                && jugadaCreate.getMoveUciTo() != null && !jugadaCreate.getMoveUciTo().isBlank();
+        if (!completa) {
+            return null;
+        }
+        try {
+            JugadaDerivada derivada = ValidadorJugadas.derivar(jugadaCreate.getFen(),
+                    jugadaCreate.getMoveUciFrom(), jugadaCreate.getMoveUciTo());
+            if (derivada != null) {
+                return new JugadaCreate(jugadaCreate.getUsuarioId(), derivada.getMoveSan(),
+                        jugadaCreate.getMoveUciFrom(), jugadaCreate.getMoveUciTo(),
+                        derivada.getFenResultante(), jugadaCreate.getPgn(), jugadaCreate.getFen());
+            }
+            // La fila ya trae el FEN posterior a la jugada: se guarda tal cual
+            if (!validarLegalidad || ValidadorJugadas.validar(jugadaCreate.getFen(),
+                    jugadaCreate.getMoveUciFrom(), jugadaCreate.getMoveUciTo()) != ValidadorJugadas.Resultado.ILEGAL) {
+                return conFenPrevioComprobado(jugadaCreate);
+            }
+            return null;
+        } catch (IllegalArgumentException e) {
+            return validarLegalidad ? null : conFenPrevioComprobado(jugadaCreate);
+        }
+    }
+
+    private static JugadaCreate conFenPrevioComprobado(JugadaCreate jugadaCreate) {
+        return new JugadaCreate(jugadaCreate.getUsuarioId(), jugadaCreate.getMoveSan(),
+                jugadaCreate.getMoveUciFrom(), jugadaCreate.getMoveUciTo(), jugadaCreate.getFen(),
+                jugadaCreate.getPgn(), fenPrevio(jugadaCreate));
+    }
+
+    // Clave del explorador: la posición desde la que se hizo la jugada, no la resultante
+    private static Long hashPosicionPrevia(JugadaCreate jugadaCreate) {
+        return Zobrist.hashFenOrNull(fenPrevio(jugadaCreate));
+    }
+
+    private static String fenPrevio(JugadaCreate jugadaCreate) {
+        return ValidadorJugadas.fenPrevio(jugadaCreate.getFen(), jugadaCreate.getMoveUciFrom(),
+                jugadaCreate.getMoveUciTo(), jugadaCreate.getFenPrevio(), jugadaCreate.getPgn());
+    }
+
+    /*
+     * La jugada debe ser legal desde el FEN o ser la que produjo el FEN (el
+     * tablero de la aplicación guarda la posición posterior a la jugada).
+     */
+    private void validarJugada(JugadaCreate jugadaCreate) {
+        if (!validarLegalidad) {
+            return;
+        }
+        ValidadorJugadas.Resultado resultado;
+        try {
+            resultado = ValidadorJugadas.validar(jugadaCreate.getFen(), jugadaCreate.getMoveUciFrom(),
+                    jugadaCreate.getMoveUciTo());
+        } catch (IllegalArgumentException e) {
+            throw new FenInvalidoException("FEN_INVALIDO", "FEN no válido: " + e.getMessage());
+        }
+        if (resultado == ValidadorJugadas.Resultado.ILEGAL) {
+            throw new JugadaIlegalException("JUGADA_ILEGAL", "La jugada " + jugadaCreate.getMoveUciFrom()
+                    + jugadaCreate.getMoveUciTo() + " no es legal en la posición indicada");
+        }
+    }
+
+    /*
+     * La existencia del usuario se comprueba contra la caché de UsuarioService;
+     * la entidad se obtiene como referencia, sin SELECT, solo para la FK.
+     */
+    private Usuario resolverUsuario(Long usuarioId) {
+        if (usuarioService.getById(usuarioId).isEmpty()) {
+            throw new UsuarioNotFoundException("USUARIO_NOT_FOUND",
+                    "Usuario con id " + usuarioId + " no encontrado");
+        }
+        return usuarioRepository.getReferenceById(usuarioId);
+    }
+
+    /*
+     * Un solo DELETE ... RETURNING: no carga la entidad para comprobar que
+     * existe ni para saber qué descontar del explorador.
+     */
+    @Override
+    @Transactional
+    public boolean eliminarJugada(@NonNull Long id) {
+        Map<MovimientoExploradorId, Long> vecesExplorador = new HashMap<>();
+        int borradas = jugadasBulkRepository.borrarPorIds(List.of(id), vecesExplorador);
+        exploradorService.descontarMovimientos(vecesExplorador);
+        return borradas > 0;
+    }
+
+    @Override
+    public ResultadoBorrado eliminarJugadas(@NonNull List<Long> ids) {
+        List<Long> distintos = ids.stream().filter(Objects::nonNull).distinct().toList();
+        long eliminadas = 0;
+        int bloques = 0;
+        for (int inicio = 0; inicio < distintos.size(); inicio += tamanoBloqueBorrado) {
+            List<Long> bloque = distintos.subList(inicio, Math.min(inicio + tamanoBloqueBorrado, distintos.size()));
+            eliminadas += borrarEnTransaccion(
+                    vecesExplorador -> jugadasBulkRepository.borrarPorIds(bloque, vecesExplorador));
+            bloques++;
         }
-        return resultado;
+        return new ResultadoBorrado(eliminadas, bloques);
     }
 
     @Override
-    public void eliminarJugada(@NonNull Long id) {
-        jugadasRepository.deleteById(id);
+    public ResultadoBorrado eliminarJugadasDeUsuario(@NonNull Long usuarioId, LocalDateTime desde,
+            LocalDateTime hasta) {
+        resolverUsuario(usuarioId);
+        return borrarPorBloques(usuarioId, desde != null ? desde : RANGO_DESDE, hasta != null ? hasta : RANGO_HASTA);
+    }
+
+    @Override
+    public ResultadoBorrado eliminarJugadasEntre(@NonNull LocalDateTime desde, @NonNull LocalDateTime hasta) {
+        return borrarPorBloques(null, desde, hasta);
+    }
+
+    // Se repite el bloque hasta que borra menos filas que el límite: ya no queda ninguna en el rango
+    private ResultadoBorrado borrarPorBloques(Long usuarioId, LocalDateTime desde, LocalDateTime hasta) {
+        long eliminadas = 0;
+        int bloques = 0;
+        int borradas;
+        do {
+            borradas = borrarEnTransaccion(vecesExplorador -> jugadasBulkRepository.borrarBloque(
+                    usuarioId, desde, hasta, tamanoBloqueBorrado, vecesExplorador));
+            eliminadas += borradas;
+            bloques++;
+        } while (borradas == tamanoBloqueBorrado);
+        return new ResultadoBorrado(eliminadas, bloques);
+    }
+
+    /*
+     * Cada bloque se confirma junto con su descuento del explorador: si falla
+     * a mitad, lo ya borrado queda borrado y contado, y el resto intacto.
+     */
+    private int borrarEnTransaccion(ToIntFunction<Map<MovimientoExploradorId, Long>> borrado) {
+        Integer borradas = transactionTemplate.execute(status -> {
+            Map<MovimientoExploradorId, Long> vecesExplorador = new HashMap<>();
+            int filas = borrado.applyAsInt(vecesExplorador);
+            exploradorService.descontarMovimientos(vecesExplorador);
+            return filas;
+        });
+        return borradas != null ? borradas : 0;
     }
 
     @Override
+    @Transactional
     public Optional<JugadaInfo> actualizarJugada(@NonNull Long id, @NonNull JugadaCreate jugadaCreate) {
         Optional<Jugadas> jugadaExistente = jugadasRepository.findById(id);
         if (jugadaExistente.isEmpty()) {
             return Optional.empty();
         }
 
-        Usuario usuario = usuarioRepository.findById(jugadaCreate.getUsuarioId())
-                .orElseThrow(() -> new UsuarioNotFoundException("USUARIO_NOT_FOUND",
-                        "Usuario con id " + jugadaCreate.getUsuarioId() + " no encontrado"));
+        validarJugada(jugadaCreate);
+        Usuario usuario = resolverUsuario(jugadaCreate.getUsuarioId());
 
         Jugadas jugada = jugadaExistente.get();
+        exploradorService.descontarMovimiento(jugada.getPosicionPreviaHash(),
+                jugada.getMoveUciFrom(), jugada.getMoveUciTo());
         jugada.setUsuario(usuario);
         jugada.setMoveSan(jugadaCreate.getMoveSan());
         jugada.setMoveUciFrom(jugadaCreate.getMoveUciFrom());
         jugada.setMoveUciTo(jugadaCreate.getMoveUciTo());
         jugada.setFen(jugadaCreate.getFen());
         jugada.setPgn(jugadaCreate.getPgn());
+        jugada.setPosicionHash(Zobrist.hashFenOrNull(jugadaCreate.getFen()));
+        jugada.setPosicionPreviaHash(hashPosicionPrevia(jugadaCreate));
 
         Jugadas jugadaActualizada = jugadasRepository.save(jugada);
+        exploradorService.registrarMovimiento(jugadaActualizada.getPosicionPreviaHash(),
+                jugadaActualizada.getMoveUciFrom(), jugadaActualizada.getMoveUciTo());
         return Optional.of(JugadaMapper.INSTANCE.jugadaToJugadaInfo(jugadaActualizada));
     }
 
     @Override
-    public List<JugadaList> exportarTodas() {
-        List<Jugadas> todasLasJugadas = jugadasRepository.findAll();
-        return JugadaMapper.INSTANCE.jugadasToJugadaList(todasLasJugadas);
+    public void exportarJugadas(Long usuarioId, LocalDateTime desde, LocalDateTime hasta,
+            @NonNull Consumer<List<JugadaList>> consumidor) {
+        long inicioExportacion = System.nanoTime();
+        long filas = 0;
+        LocalDateTime ultimaCreada = RANGO_DESDE;
+        long ultimoId = 0L;
+        List<Jugadas> bloque;
+        do {
+            bloque = jugadasRepository.findBloqueExportacion(ultimaCreada, ultimoId, usuarioId,
+                    desde != null ? desde : RANGO_DESDE, hasta != null ? hasta : RANGO_HASTA,
+                    Limit.of(tamanoBloqueExportacion));
+            if (!bloque.isEmpty()) {
+                consumidor.accept(JugadaMapper.INSTANCE.jugadasToJugadaList(bloque));
+                Jugadas ultima = bloque.get(bloque.size() - 1);
+                ultimaCreada = ultima.getCreatedAt();
+                ultimoId = ultima.getId();
+                filas += bloque.size();
+            }
+        } while (bloque.size() == tamanoBloqueExportacion);
+        metricasTransferencia.registrarExportacion(filas, System.nanoTime() - inicioExportacion);
+    }
+
+    @Override
+    public Long prepararExportacionPgn(@NonNull Long usuarioId, String fen) {
+        resolverUsuario(usuarioId);
+        if (fen == null || fen.isBlank()) {
+            return null;
+        }
+        try {
+            return Zobrist.hashFen(fen);
+        } catch (IllegalArgumentException e) {
+            throw new FenInvalidoException("FEN_INVALIDO", "FEN no válido: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void exportarPartidasPgn(@NonNull Long usuarioId, Long posicionHash,
+            @NonNull Consumer<String> consumidor) {
+        // Con filtro, un usuario que nunca pasó por la posición no necesita recorrer su historial
+        if (posicionHash != null && !jugadasRepository.existsByUsuarioIdAndPosicionHash(usuarioId, posicionHash)) {
+            return;
+        }
+
+        long inicioExportacion = System.nanoTime();
+        long filas = 0;
+        LocalDateTime ultimaCreada = RANGO_DESDE;
+        long ultimoId = 0L;
+        ReconstructorPartidas reconstructor = new ReconstructorPartidas(posicionHash, consumidor);
+        List<Jugadas> bloque;
+        do {
+            bloque = jugadasRepository.findBloqueExportacion(ultimaCreada, ultimoId, usuarioId,
+                    RANGO_DESDE, RANGO_HASTA, Limit.of(tamanoBloqueExportacion));
+            for (Jugadas jugada : bloque) {
+                reconstructor.anadir(jugada);
+            }
+            if (!bloque.isEmpty()) {
+                Jugadas ultima = bloque.get(bloque.size() - 1);
+                ultimaCreada = ultima.getCreatedAt();
+                ultimoId = ultima.getId();
+                filas += bloque.size();
+            }
+        } while (bloque.size() == tamanoBloqueExportacion);
+        reconstructor.terminar();
+        metricasTransferencia.registrarExportacion(filas, System.nanoTime() - inicioExportacion);
     }
 }
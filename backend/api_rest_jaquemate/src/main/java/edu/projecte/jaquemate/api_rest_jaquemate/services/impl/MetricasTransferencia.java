@@ -0,0 +1,69 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.services.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas de las importaciones y exportaciones de jugadas: filas procesadas,
+ * duración de cada operación y filas por segundo de la última completada.
+ */
+@Component
+public final class MetricasTransferencia {
+
+    private final Counter importadasAceptadas;
+    private final Counter importadasRechazadas;
+    private final Counter exportadas;
+    private final Timer duracionImportacion;
+    private final Timer duracionExportacion;
+    private volatile double filasPorSegundoImportacion;
+    private volatile double filasPorSegundoExportacion;
+
+    public MetricasTransferencia(MeterRegistry registry) {
+        importadasAceptadas = Counter.builder("jaquemate.importacion.filas")
+                .description("Filas recibidas en importaciones")
+                .tag("resultado", "aceptada")
+                .register(registry);
+        importadasRechazadas = Counter.builder("jaquemate.importacion.filas")
+                .description("Filas recibidas en importaciones")
+                .tag("resultado", "rechazada")
+                .register(registry);
+        exportadas = Counter.builder("jaquemate.exportacion.filas")
+                .description("Filas escritas en exportaciones")
+                .register(registry);
+        duracionImportacion = Timer.builder("jaquemate.importacion.duracion")
+                .publishPercentileHistogram()
+                .register(registry);
+        duracionExportacion = Timer.builder("jaquemate.exportacion.duracion")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("jaquemate.importacion.filas.por.segundo", this, m -> m.filasPorSegundoImportacion)
+                .description("Rendimiento de la última importación completada")
+                .register(registry);
+        Gauge.builder("jaquemate.exportacion.filas.por.segundo", this, m -> m.filasPorSegundoExportacion)
+                .description("Rendimiento de la última exportación completada")
+                .register(registry);
+    }
+
+    public void registrarImportacion(long aceptadas, long rechazadas, long duracionNanos) {
+        importadasAceptadas.increment(aceptadas);
+        importadasRechazadas.increment(rechazadas);
+        duracionImportacion.record(duracionNanos, TimeUnit.NANOSECONDS);
+        filasPorSegundoImportacion = filasPorSegundo(aceptadas + rechazadas, duracionNanos);
+    }
+
+    public void registrarExportacion(long filas, long duracionNanos) {
+        exportadas.increment(filas);
+        duracionExportacion.record(duracionNanos, TimeUnit.NANOSECONDS);
+        filasPorSegundoExportacion = filasPorSegundo(filas, duracionNanos);
+    }
+
+    private static double filasPorSegundo(long filas, long duracionNanos) {
+        return duracionNanos > 0 ? filas * 1e9 / duracionNanos : 0;
+    }
+}
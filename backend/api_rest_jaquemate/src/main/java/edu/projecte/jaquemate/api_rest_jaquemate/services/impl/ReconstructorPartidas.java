@@ -0,0 +1,203 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.services.impl;
+
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.GeneradorMovimientos;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.Movimiento;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.NotacionSan;
+import edu.projecte.jaquemate.api_rest_jaquemate.chess.Tablero;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Jugadas;
+
+/**
+ * Regenera partidas PGN a partir de las jugadas de un usuario en orden de
+ * creación (createdAt, id).
+ * Una jugada continúa la partida en curso si es legal en la posición actual y
+ * lleva al FEN guardado; si no, empieza otra. Solo se guarda en memoria la
+ * partida en curso.
+ */
+class ReconstructorPartidas {
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    private static final int ANCHO_LINEA = 80;
+
+    private final Long posicionHash;
+    private final Consumer<String> consumidor;
+
+    private Tablero tablero;
+    private String fenInicial;
+    private Jugadas primera;
+    private final StringBuilder movimientos = new StringBuilder();
+    private int anchoLinea;
+    private boolean hayJugadas;
+    private boolean pasaPorPosicion;
+
+    /**
+     * @param posicionHash solo se entregan las partidas que pasan por esta
+     *                     posición; null para entregarlas todas
+     * @param consumidor   recibe cada partida completa en PGN
+     */
+    ReconstructorPartidas(Long posicionHash, Consumer<String> consumidor) {
+        this.posicionHash = posicionHash;
+        this.consumidor = consumidor;
+    }
+
+    void anadir(Jugadas jugada) {
+        String uci = jugada.getMoveUciFrom() + jugada.getMoveUciTo();
+        if (tablero == null || !continuar(tablero, uci, jugada.getFen())) {
+            cerrar();
+            empezar(jugada, uci);
+        }
+        if (tablero != null && posicionHash != null && posicionHash.equals(jugada.getPosicionHash())) {
+            pasaPorPosicion = true;
+        }
+    }
+
+    void terminar() {
+        cerrar();
+    }
+
+    /*
+     * Orden de preferencia para el inicio de una partida: jugada desde la
+     * posición inicial, FEN guardado anterior a la jugada (importaciones CSV
+     * antiguas) y, si el FEN es el posterior, partida desde esa posición.
+     */
+    private void empezar(Jugadas jugada, String uci) {
+        Tablero inicial = Tablero.desdeFen(Tablero.FEN_INICIAL);
+        if (continuar(inicial, uci, jugada.getFen())) {
+            tablero = inicial;
+            primera = jugada;
+            return;
+        }
+
+        Tablero guardado;
+        try {
+            guardado = Tablero.desdeFen(jugada.getFen());
+        } catch (IllegalArgumentException e) {
+            // Sin una posición válida la jugada no se puede exportar
+            return;
+        }
+        tablero = guardado;
+        fenInicial = guardado.toFen();
+        primera = jugada;
+        int movimiento = GeneradorMovimientos.buscarUci(guardado, uci);
+        if (movimiento != Movimiento.NULO) {
+            escribirMovimiento(guardado.getTurno(), guardado.getNumeroJugada(), NotacionSan.san(guardado, movimiento));
+            guardado.hacer(movimiento);
+        } else {
+            escribir("{Posición tras " + uci + "}");
+        }
+    }
+
+    private boolean continuar(Tablero posicion, String uci, String fen) {
+        int movimiento = GeneradorMovimientos.buscarUci(posicion, uci);
+        if (movimiento == Movimiento.NULO) {
+            return false;
+        }
+        String san = NotacionSan.san(posicion, movimiento);
+        int turno = posicion.getTurno();
+        int numeroJugada = posicion.getNumeroJugada();
+        posicion.hacer(movimiento);
+        if (!mismaPosicion(posicion.toFen(), fen)) {
+            posicion.deshacer(movimiento);
+            return false;
+        }
+        escribirMovimiento(turno, numeroJugada, san);
+        return true;
+    }
+
+    private void escribirMovimiento(int turno, int numeroJugada, String san) {
+        if (turno == Tablero.BLANCAS) {
+            escribir(numeroJugada + ".");
+        } else if (!hayJugadas) {
+            escribir(numeroJugada + "...");
+        }
+        escribir(san);
+        hayJugadas = true;
+    }
+
+    private void escribir(String token) {
+        if (anchoLinea > 0 && anchoLinea + 1 + token.length() > ANCHO_LINEA) {
+            movimientos.append('\n');
+            anchoLinea = 0;
+        } else if (anchoLinea > 0) {
+            movimientos.append(' ');
+            anchoLinea++;
+        }
+        movimientos.append(token);
+        anchoLinea += token.length();
+    }
+
+    private void cerrar() {
+        if (primera != null && (posicionHash == null || pasaPorPosicion)) {
+            String resultado = resultado(tablero);
+            escribir(resultado);
+            String nombre = primera.getUsuario() != null ? primera.getUsuario().getUsuario() : "?";
+
+            StringBuilder pgn = new StringBuilder(movimientos.length() + 256);
+            etiqueta(pgn, "Event", "Jaquemate");
+            etiqueta(pgn, "Site", "?");
+            etiqueta(pgn, "Date", primera.getCreatedAt() != null
+                    ? primera.getCreatedAt().format(FORMATO_FECHA)
+                    : "????.??.??");
+            etiqueta(pgn, "Round", "?");
+            etiqueta(pgn, "White", nombre);
+            etiqueta(pgn, "Black", nombre);
+            etiqueta(pgn, "Result", resultado);
+            if (fenInicial != null) {
+                etiqueta(pgn, "SetUp", "1");
+                etiqueta(pgn, "FEN", fenInicial);
+            }
+            pgn.append('\n').append(movimientos).append("\n\n");
+            consumidor.accept(pgn.toString());
+        }
+        tablero = null;
+        fenInicial = null;
+        primera = null;
+        movimientos.setLength(0);
+        anchoLinea = 0;
+        hayJugadas = false;
+        pasaPorPosicion = false;
+    }
+
+    private static String resultado(Tablero tablero) {
+        if (tablero == null
+                || GeneradorMovimientos.generarLegales(tablero, new int[GeneradorMovimientos.MAXIMO_MOVIMIENTOS]) > 0) {
+            return "*";
+        }
+        if (!tablero.enJaque()) {
+            return "1/2-1/2";
+        }
+        return tablero.getTurno() == Tablero.BLANCAS ? "0-1" : "1-0";
+    }
+
+    private static void etiqueta(StringBuilder pgn, String nombre, String valor) {
+        pgn.append('[').append(nombre).append(" \"")
+                .append(valor.replace("\\", "\\\\").replace("\"", "\\\""))
+                .append("\"]\n");
+    }
+
+    /*
+     * Colocación, turno y enroques: la casilla al paso y los contadores no se
+     * comparan porque chess.js solo escribe la casilla al paso si hay captura.
+     */
+    private static boolean mismaPosicion(String fen, String fenGuardado) {
+        if (fenGuardado == null) {
+            return false;
+        }
+        int campos = 0;
+        int i = 0;
+        String guardado = fenGuardado.strip();
+        while (i < fen.length() && i < guardado.length()) {
+            char c = fen.charAt(i);
+            if (c != guardado.charAt(i)) {
+                return false;
+            }
+            if (c == ' ' && ++campos == 3) {
+                return true;
+            }
+            i++;
+        }
+        return false;
+    }
+}
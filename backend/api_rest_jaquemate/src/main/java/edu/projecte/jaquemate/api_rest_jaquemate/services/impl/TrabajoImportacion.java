@@ -0,0 +1,166 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.services.impl;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoImportacion;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoTrabajoImportacion;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.FormatoImportacion;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.ResultadoBloque;
+
+/**
+ * Estado mutable de una importación en segundo plano. Lo actualiza el hilo
+ * del trabajo y lo leen las peticiones de consulta de estado.
+ */
+class TrabajoImportacion {
+
+    private static final int MAXIMO_ERRORES = 20;
+
+    private final String id;
+    private final Long usuarioId;
+    private final FormatoImportacion formato;
+    private final Path fichero;
+    private final long tamanoFichero;
+    private final LocalDateTime creado = LocalDateTime.now();
+
+    private final AtomicLong filasLeidas = new AtomicLong();
+    private final AtomicLong aceptadas = new AtomicLong();
+    private final AtomicLong rechazadas = new AtomicLong();
+    private final AtomicLong bytesLeidos = new AtomicLong();
+    private final List<String> errores = new ArrayList<>();
+
+    private volatile EstadoTrabajoImportacion estado = EstadoTrabajoImportacion.EN_COLA;
+    private volatile boolean cancelacionPedida = false;
+    private volatile long inicioNanos;
+    private volatile long finNanos;
+    private volatile LocalDateTime iniciado;
+    private volatile LocalDateTime terminado;
+
+    TrabajoImportacion(String id, Long usuarioId, FormatoImportacion formato, Path fichero, long tamanoFichero) {
+        this.id = id;
+        this.usuarioId = usuarioId;
+        this.formato = formato;
+        this.fichero = fichero;
+        this.tamanoFichero = tamanoFichero;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    FormatoImportacion getFormato() {
+        return formato;
+    }
+
+    Path getFichero() {
+        return fichero;
+    }
+
+    long getAceptadas() {
+        return aceptadas.get();
+    }
+
+    long getRechazadas() {
+        return rechazadas.get();
+    }
+
+    long getDuracionNanos() {
+        return inicioNanos == 0 ? 0 : (finNanos != 0 ? finNanos : System.nanoTime()) - inicioNanos;
+    }
+
+    boolean isCancelacionPedida() {
+        return cancelacionPedida;
+    }
+
+    void pedirCancelacion() {
+        cancelacionPedida = true;
+    }
+
+    void iniciar() {
+        inicioNanos = System.nanoTime();
+        iniciado = LocalDateTime.now();
+        estado = EstadoTrabajoImportacion.EN_CURSO;
+    }
+
+    void terminar(EstadoTrabajoImportacion estadoFinal) {
+        finNanos = System.nanoTime();
+        terminado = LocalDateTime.now();
+        estado = estadoFinal;
+    }
+
+    void fallar(String error) {
+        anotarError(error);
+        terminar(EstadoTrabajoImportacion.ERROR);
+    }
+
+    boolean isIniciado() {
+        return iniciado != null;
+    }
+
+    boolean isTerminado() {
+        return terminado != null;
+    }
+
+    LocalDateTime getTerminado() {
+        return terminado;
+    }
+
+    // Lo llama EntradaContada con los bytes que el lector saca del fichero
+    void leerBytes(long bytes) {
+        bytesLeidos.addAndGet(bytes);
+    }
+
+    void leerFilas(long filas) {
+        filasLeidas.addAndGet(filas);
+    }
+
+    void rechazarLinea(long numeroLinea, String motivo) {
+        rechazarFilas(1, numeroLinea, motivo);
+    }
+
+    void rechazarFilas(long filas, long numeroLinea, String motivo) {
+        rechazadas.addAndGet(filas);
+        anotarError("Línea " + numeroLinea + ": " + motivo);
+    }
+
+    void sumarBloque(ResultadoBloque resultado) {
+        aceptadas.addAndGet(resultado.getAceptadas());
+        rechazadas.addAndGet(resultado.getRechazadas());
+        if (resultado.getError() != null) {
+            anotarError("Bloque " + resultado.getNumero() + ": " + resultado.getError());
+        }
+    }
+
+    private void anotarError(String error) {
+        synchronized (errores) {
+            if (errores.size() < MAXIMO_ERRORES) {
+                errores.add(error);
+            }
+        }
+    }
+
+    EstadoImportacion toEstado() {
+        long duracion = getDuracionNanos();
+        long procesadas = aceptadas.get() + rechazadas.get();
+        double progreso;
+        if (estado == EstadoTrabajoImportacion.COMPLETADO) {
+            progreso = 1.0;
+        } else {
+            progreso = tamanoFichero > 0 ? Math.min(1.0, (double) bytesLeidos.get() / tamanoFichero) : 0.0;
+        }
+        List<String> muestraErrores;
+        synchronized (errores) {
+            muestraErrores = List.copyOf(errores);
+        }
+        return new EstadoImportacion(id, usuarioId, formato, estado, filasLeidas.get(), aceptadas.get(), rechazadas.get(),
+                progreso, duracion > 0 ? procesadas * 1e9 / duracion : 0, muestraErrores,
+                creado, iniciado, terminado);
+    }
+}
@@ -2,9 +2,13 @@ package edu.projecte.jaquemate.api_rest_jaquemate.services.impl;
 
 import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 
+import edu.projecte.jaquemate.api_rest_jaquemate.config.CacheConfig;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Usuario;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.LoginUsuario;
 import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.UsuarioCreate;
@@ -18,12 +22,15 @@ import edu.projecte.jaquemate.api_rest_jaquemate.services.mapper.UsuarioMapper;
 public class UsuarioServiceImpl implements UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
+    private final DisponibilidadUsuarios disponibilidadUsuarios;
 
-    public UsuarioServiceImpl(UsuarioRepository usuarioRepository) {
+    public UsuarioServiceImpl(UsuarioRepository usuarioRepository, DisponibilidadUsuarios disponibilidadUsuarios) {
         this.usuarioRepository = usuarioRepository;
+        this.disponibilidadUsuarios = disponibilidadUsuarios;
     }
 
     @Override
+    @Cacheable(CacheConfig.USUARIOS_POR_NOMBRE)
     public Optional<UsuarioInfo> getByUsuario(@NonNull String usuario) {
         Optional<Usuario> usuarioDb = usuarioRepository.findByUsuario(usuario);
         if (usuarioDb.isPresent()) {
@@ -33,6 +40,7 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     @Override
+    @Cacheable(CacheConfig.USUARIOS_POR_EMAIL)
     public Optional<UsuarioInfo> getByEmail(@NonNull String email) {
         Optional<Usuario> usuarioDb = usuarioRepository.findByEmail(email);
         if (usuarioDb.isPresent()) {
@@ -41,7 +49,9 @@ public class UsuarioServiceImpl implements UsuarioService {
         return Optional.empty();
     }
 
+    // Los ids inexistentes no se cachean: el usuario podría crearse justo después
     @Override
+    @Cacheable(cacheNames = CacheConfig.USUARIOS_POR_ID, unless = "#result == null")
     public Optional<UsuarioInfo> getById(@NonNull Long id) {
         Optional<Usuario> usuarioDb = usuarioRepository.findById(id);
         if (usuarioDb.isPresent()) {
@@ -50,37 +60,53 @@ public class UsuarioServiceImpl implements UsuarioService {
         return Optional.empty();
     }
 
+    // Un negativo del filtro de Bloom es definitivo; solo se cachean los positivos
     @Override
+    @Cacheable(cacheNames = CacheConfig.USUARIOS_EXISTE_POR_NOMBRE, unless = "!#result")
     public boolean existsByUsuario(@NonNull String usuario) {
+        if (!disponibilidadUsuarios.puedeExistirUsuario(usuario)) {
+            return false;
+        }
         return usuarioRepository.existsByUsuario(usuario);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USUARIOS_EXISTE_POR_EMAIL, unless = "!#result")
     public boolean existsByEmail(@NonNull String email) {
+        if (!disponibilidadUsuarios.puedeExistirEmail(email)) {
+            return false;
+        }
         return usuarioRepository.existsByEmail(email);
     }
 
     @Override
-    public boolean comprobarLogin(@NonNull LoginUsuario loginUsuario) {
-        Optional<Usuario> usuarioDbOp = usuarioRepository.findByUsuario(loginUsuario.getUsuario());
-        if (usuarioDbOp.isPresent()) {
-            Usuario usuarioDb = usuarioDbOp.get();
-
-            if (loginUsuario.getPassword().equals(usuarioDb.getPassword())) {
-                return true;
-            }
-        }
-        return false;
+    public Optional<UsuarioInfo> autenticar(@NonNull LoginUsuario loginUsuario) {
+        return usuarioRepository.findByUsuario(loginUsuario.getUsuario())
+                .filter(usuarioDb -> loginUsuario.getPassword().equals(usuarioDb.getPassword()))
+                .map(UsuarioMapper.INSTANCE::usuarioToUserInfo);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = { CacheConfig.USUARIOS_POR_NOMBRE,
+                    CacheConfig.USUARIOS_EXISTE_POR_NOMBRE }, key = "#usuarioCreate.usuario"),
+            @CacheEvict(cacheNames = { CacheConfig.USUARIOS_POR_EMAIL,
+                    CacheConfig.USUARIOS_EXISTE_POR_EMAIL }, key = "#usuarioCreate.email")
+    })
     public UsuarioInfo crearUsuario(@NonNull UsuarioCreate usuarioCreate) {
         Usuario usuario = UsuarioMapper.INSTANCE.usuarioCreateToUsuario(usuarioCreate);
         Usuario usuarioGuardado = usuarioRepository.save(usuario);
+        disponibilidadUsuarios.registrar(usuarioGuardado.getUsuario(), usuarioGuardado.getEmail());
         return UsuarioMapper.INSTANCE.usuarioToUserInfo(usuarioGuardado);
     }
 
+    // El nombre anterior no se conoce aquí, así que se vacían las cachés por nombre y email
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USUARIOS_POR_ID, key = "#id"),
+            @CacheEvict(cacheNames = { CacheConfig.USUARIOS_POR_NOMBRE, CacheConfig.USUARIOS_POR_EMAIL,
+                    CacheConfig.USUARIOS_EXISTE_POR_NOMBRE }, allEntries = true)
+    })
     public Optional<UsuarioInfo> actualizarPerfil(@NonNull Long id, @NonNull UsuarioUpdate usuarioUpdate) {
         Optional<Usuario> usuarioDbOp = usuarioRepository.findById(id);
         if (usuarioDbOp.isEmpty()) {
@@ -98,6 +124,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         }
 
         Usuario usuarioActualizado = usuarioRepository.save(usuarioDb);
+        disponibilidadUsuarios.registrar(usuarioActualizado.getUsuario(), null);
         return Optional.of(UsuarioMapper.INSTANCE.usuarioToUserInfo(usuarioActualizado));
     }
 }
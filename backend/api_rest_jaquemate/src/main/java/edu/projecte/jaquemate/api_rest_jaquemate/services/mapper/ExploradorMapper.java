@@ -0,0 +1,22 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.services.mapper;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.MovimientoExplorador;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.MovimientoExploradorInfo;
+
+@Mapper
+public interface ExploradorMapper {
+    ExploradorMapper INSTANCE = Mappers.getMapper(ExploradorMapper.class);
+
+    @Mapping(target = "moveUciFrom", source = "id.moveUciFrom")
+    @Mapping(target = "moveUciTo", source = "id.moveUciTo")
+    @Mapping(target = "moveUci", expression = "java(movimiento.getId().getMoveUciFrom() + movimiento.getId().getMoveUciTo())")
+    MovimientoExploradorInfo movimientoToMovimientoInfo(MovimientoExplorador movimiento);
+
+    List<MovimientoExploradorInfo> movimientosToMovimientoInfo(List<MovimientoExplorador> movimientos);
+}
@@ -16,5 +16,6 @@ public interface UsuarioMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "creado", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Usuario usuarioCreateToUsuario(UsuarioCreate usuarioCreate);
 }
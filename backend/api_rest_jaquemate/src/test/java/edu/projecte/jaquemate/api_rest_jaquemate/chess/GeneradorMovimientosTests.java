@@ -0,0 +1,82 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Perft contra los valores de referencia de la Chess Programming Wiki: cubre
+ * enroques, capturas al paso, promociones y clavadas. Las profundidades están
+ * limitadas para que el test tarde poco; el benchmark recorre más nodos.
+ */
+class GeneradorMovimientosTests {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1; 4; 197281",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1; 3; 97862",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1; 5; 674624",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1; 3; 9467",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8; 3; 62379",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10; 3; 89890"
+    })
+    void perft(String fen, int profundidad, long nodos) {
+        assertEquals(nodos, GeneradorMovimientos.perft(Tablero.desdeFen(fen), profundidad));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // Jugada desde la posición (importación CSV)
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1, e2, e4, DESDE_POSICION",
+            "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1, e1, g1, DESDE_POSICION",
+            "7k/P7/8/8/8/8/8/K7 w - - 0 1, a7, a8n, DESDE_POSICION",
+            // Posición posterior a la jugada (tablero de la aplicación)
+            "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1, e2, e4, HACIA_POSICION",
+            "r3k2r/8/8/8/8/8/8/R4RK1 b kq - 1 1, e1, g1, HACIA_POSICION",
+            // Ninguna de las dos
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1, e2, e5, ILEGAL",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1, e7, e5, ILEGAL",
+            "4k3/8/8/8/8/8/4r3/4K2R w K - 0 1, e1, g1, ILEGAL"
+    })
+    void validar(String fen, String desde, String hacia, ValidadorJugadas.Resultado esperado) {
+        assertEquals(esperado, ValidadorJugadas.validar(fen, desde, hacia));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1, e2, e4, e4",
+            "7k/8/8/8/8/8/8/N1N4K w - - 0 1, a1, b3, Nab3",
+            "7k/8/8/R7/8/R7/8/4K3 w - - 0 1, a3, a4, R3a4",
+            "6k1/8/8/8/8/Q7/8/Q1Q1K3 w - - 0 1, a1, b2, Qa1b2",
+            // El caballo de d2 está clavado: no hace falta desambiguar
+            "4k3/8/8/8/1b6/8/3N4/4K1N1 w - - 0 1, g1, f3, Nf3",
+            "rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq g3 0 2, d8, h4, Qh4#",
+            "7k/P7/8/8/8/8/8/K7 w - - 0 1, a7, a8q, a8=Q+",
+            "7k/P7/8/8/8/8/8/K7 w - - 0 1, a7, a8n, a8=N",
+            "4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1, e5, d6, exd6",
+            "r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1, e8, c8, O-O-O"
+    })
+    void derivarSan(String fen, String desde, String hacia, String san) {
+        assertEquals(san, ValidadorJugadas.derivar(fen, desde, hacia).getMoveSan());
+    }
+
+    @Test
+    void derivarFenResultante() {
+        JugadaDerivada derivada = ValidadorJugadas.derivar(
+                "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", "e1", "g1");
+        assertEquals("r3k2r/8/8/8/8/8/8/R4RK1 b kq - 1 1", derivada.getFenResultante());
+        assertNull(ValidadorJugadas.derivar("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", "e1", "e3"));
+    }
+
+    @Test
+    void fenInvalido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ValidadorJugadas.validar("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1", "e2", "e4"));
+        assertThrows(IllegalArgumentException.class,
+                () -> ValidadorJugadas.validar("8/8/8/8/8/8/8/8 w - - 0 1", "e2", "e4"));
+    }
+}
@@ -0,0 +1,71 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Lectura de varias partidas seguidas: comentarios que ocupan varias líneas,
+ * variantes anidadas, NAGs, números de jugada pegados y partidas sin resultado.
+ */
+class LectorPgnTests {
+
+    private static final String PGN = """
+            [Event "Primera \\"A\\""]
+            [Result "1-0"]
+
+            1. e4 e5 {Comentario (con paréntesis)
+            en dos líneas} 2. Nf3 Nc6 (2... d6 3. d4 (3. Bc4 {x})) 3.Bb5 $1 a6?! 4. Ba4 ; fin de línea
+            Nf6 5. 0-0 1-0
+
+            %línea de escape
+            [Event "Segunda"]
+            [SetUp "1"]
+            [FEN "7k/P7/8/8/8/8/8/K7 w - - 0 1"]
+
+            1. a8Q+ Kh7 *
+            [Event "Tercera"]
+            1. e4 e5 2. Ke3
+            """;
+
+    @Test
+    void leerPartidas() throws IOException {
+        LectorPgn lector = new LectorPgn(new BufferedReader(new StringReader(PGN)));
+
+        PartidaPgn primera = lector.siguiente();
+        assertEquals("Primera \"A\"", primera.getEtiquetas().get("Event"));
+        assertEquals(List.of("e4", "e5", "Nf3", "Nc6", "Bb5", "a6?!", "Ba4", "Nf6", "0-0"), primera.getJugadas());
+        assertEquals("1-0", primera.getResultado());
+        assertEquals(1, primera.getLinea());
+
+        PartidaPgn segunda = lector.siguiente();
+        assertEquals("7k/P7/8/8/8/8/8/K7 w - - 0 1", segunda.getFenInicial());
+        assertEquals(List.of("a8Q+", "Kh7"), segunda.getJugadas());
+
+        PartidaPgn tercera = lector.siguiente();
+        assertEquals(List.of("e4", "e5", "Ke3"), tercera.getJugadas());
+        assertNull(tercera.getResultado());
+
+        assertNull(lector.siguiente());
+    }
+
+    @Test
+    void buscarSan() {
+        Tablero tablero = Tablero.desdeFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        assertEquals("e1g1", Movimiento.toUci(NotacionSan.buscar(tablero, "0-0")));
+        assertEquals("e1c1", Movimiento.toUci(NotacionSan.buscar(tablero, "O-O-O+")));
+        assertEquals("a1a8", Movimiento.toUci(NotacionSan.buscar(tablero, "Rxa8+")));
+        assertEquals(Movimiento.NULO, NotacionSan.buscar(tablero, "Ke3"));
+
+        Tablero promocion = Tablero.desdeFen("7k/P7/8/8/8/8/8/K7 w - - 0 1");
+        assertEquals("a7a8q", Movimiento.toUci(NotacionSan.buscar(promocion, "a8Q+")));
+        assertEquals("a7a8n", Movimiento.toUci(NotacionSan.buscar(promocion, "a8=N")));
+        assertEquals(Movimiento.NULO, NotacionSan.buscar(promocion, "a8"));
+    }
+}
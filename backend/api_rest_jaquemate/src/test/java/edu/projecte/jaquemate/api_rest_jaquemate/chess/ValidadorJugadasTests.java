@@ -0,0 +1,72 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * La posición previa es la clave del explorador: debe salir igual con las dos
+ * convenciones de FEN y no inventarse cuando los datos no encajan.
+ */
+class ValidadorJugadasTests {
+
+    private static final String TRAS_E4_E5 = jugar(Tablero.FEN_INICIAL, "e2e4", "e7e5");
+    private static final String TRAS_NF3 = jugar(TRAS_E4_E5, "g1f3");
+
+    @Test
+    void fenAnteriorALaJugadaEsLaPosicionPrevia() {
+        assertEquals(Tablero.FEN_INICIAL,
+                ValidadorJugadas.fenPrevio(Tablero.FEN_INICIAL, "e2", "e4", null, null));
+    }
+
+    @Test
+    void fenResultanteUsaElFenPrevioDelCliente() {
+        String trasE4 = jugar(Tablero.FEN_INICIAL, "e2e4");
+
+        assertEquals(Tablero.FEN_INICIAL,
+                ValidadorJugadas.fenPrevio(trasE4, "e2", "e4", Tablero.FEN_INICIAL, null));
+    }
+
+    @Test
+    void fenPrevioQueNoLlevaAlFenGuardadoSeDescarta() {
+        assertNull(ValidadorJugadas.fenPrevio(TRAS_NF3, "g1", "f3", Tablero.FEN_INICIAL, null));
+    }
+
+    @Test
+    void fenResultanteSinFenPrevioRepiteElPgn() {
+        String previo = ValidadorJugadas.fenPrevio(TRAS_NF3, "g1", "f3", null, "1. e4 e5 2. Nf3");
+
+        assertEquals(Zobrist.hashFen(TRAS_E4_E5), Zobrist.hashFen(previo));
+    }
+
+    @Test
+    void pgnConEtiquetasYResultado() {
+        String pgn = "[Event \"?\"]\n[White \"a\"]\n\n1. e4 e5 2. Nf3 *";
+
+        assertNotNull(ValidadorJugadas.fenPrevio(TRAS_NF3, "g1", "f3", null, pgn));
+    }
+
+    @Test
+    void pgnQueNoTerminaEnLaJugadaNoDaPosicion() {
+        assertNull(ValidadorJugadas.fenPrevio(TRAS_NF3, "g1", "f3", null, "1. e4 e5 2. Nc3"));
+        assertNull(ValidadorJugadas.fenPrevio(TRAS_NF3, "g1", "f3", null, "1. d4 d5 2. Nf3"));
+    }
+
+    @Test
+    void fenNoValidoNoDaPosicion() {
+        assertNull(ValidadorJugadas.fenPrevio("no es un fen", "e2", "e4", Tablero.FEN_INICIAL, "1. e4"));
+    }
+
+    private static String jugar(String fen, String... jugadas) {
+        Tablero tablero = Tablero.desdeFen(fen);
+        for (String uci : jugadas) {
+            int movimiento = GeneradorMovimientos.buscarUci(tablero, uci);
+            assertNotEquals(Movimiento.NULO, movimiento, uci);
+            tablero.hacer(movimiento);
+        }
+        return tablero.toFen();
+    }
+}
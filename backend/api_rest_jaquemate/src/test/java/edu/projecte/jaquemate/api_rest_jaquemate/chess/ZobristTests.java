@@ -0,0 +1,85 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * El hash identifica la posición y no el camino: transposiciones y FEN que
+ * solo cambian en los contadores o en una casilla al paso sin captura posible
+ * dan el mismo valor; el turno y cada derecho de enroque lo cambian.
+ */
+class ZobristTests {
+
+    @Test
+    void transposicionDaElMismoHash() {
+        String porPeones = jugar(Tablero.FEN_INICIAL, "e2e4", "e7e5", "g1f3", "b8c6");
+        String porCaballos = jugar(Tablero.FEN_INICIAL, "g1f3", "b8c6", "e2e4", "e7e5");
+
+        // Los FEN difieren (contador de medio movimiento, casilla al paso) pero la posición es la misma
+        assertNotEquals(porPeones, porCaballos);
+        assertEquals(Zobrist.hashFen(porPeones), Zobrist.hashFen(porCaballos));
+    }
+
+    @Test
+    void losContadoresNoFormanParteDelHash() {
+        long hash = Zobrist.hashFen(Tablero.FEN_INICIAL);
+
+        assertEquals(hash, Zobrist.hashFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 7 31"));
+        assertEquals(hash, Zobrist.hashFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -"));
+    }
+
+    @Test
+    void alPasoSinCapturaPosibleSeNormaliza() {
+        // Tras 1.e4 ningún peón negro está en d4 ni en f4
+        assertEquals(
+                Zobrist.hashFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1"),
+                Zobrist.hashFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1"));
+    }
+
+    @Test
+    void alPasoConCapturaPosibleCambiaElHash() {
+        // El peón de e5 puede capturar en d6
+        assertNotEquals(
+                Zobrist.hashFen("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2"),
+                Zobrist.hashFen("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2"));
+    }
+
+    @Test
+    void turnoCambiaElHash() {
+        assertNotEquals(
+                Zobrist.hashFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"),
+                Zobrist.hashFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b KQkq - 0 1"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "Qkq", "Kkq", "KQq", "KQk", "-" })
+    void cadaDerechoDeEnroqueCambiaElHash(String enroques) {
+        String colocacion = "r3k2r/pppppppp/8/8/8/8/PPPPPPPP/R3K2R w ";
+
+        assertNotEquals(Zobrist.hashFen(colocacion + "KQkq - 0 1"), Zobrist.hashFen(colocacion + enroques + " - 0 1"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "8/8/8/8/8/8/8/8", "8/8/8/8/8/8/8 w - - 0 1", "8/8/8/8/8/8/8/8 x - - 0 1",
+            "8/8/8/8/8/8/8/8 w X - 0 1", "8/8/8/8/8/8/8/8 w - e4 0 1" })
+    void fenNoValido(String fen) {
+        assertThrows(IllegalArgumentException.class, () -> Zobrist.hashFen(fen));
+        assertNull(Zobrist.hashFenOrNull(fen));
+    }
+
+    private static String jugar(String fen, String... jugadas) {
+        Tablero tablero = Tablero.desdeFen(fen);
+        for (String uci : jugadas) {
+            int movimiento = GeneradorMovimientos.buscarUci(tablero, uci);
+            assertNotEquals(Movimiento.NULO, movimiento, uci);
+            tablero.hacer(movimiento);
+        }
+        return tablero.toFen();
+    }
+}
@@ -0,0 +1,99 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.config.FormatosRespuesta;
+import edu.projecte.jaquemate.api_rest_jaquemate.exceptions.GlobalExceptionHandler;
+import edu.projecte.jaquemate.api_rest_jaquemate.helper.PaginationHelper;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.CursorPagina;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaList;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.PaginaCursorDto;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.ImportacionService;
+import edu.projecte.jaquemate.api_rest_jaquemate.services.JugadaService;
+
+/**
+ * Modo cursor de los listados (?after=) sin levantar el contexto: el token
+ * llega decodificado al servicio, el siguiente se devuelve codificado y los
+ * cursores u órdenes no admitidos responden 400.
+ */
+class JugadaRestControllerCursorTests {
+
+    private JugadaService jugadaService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        jugadaService = mock(JugadaService.class);
+        JugadaRestController controller = new JugadaRestController(jugadaService, mock(ImportacionService.class),
+                mock(FormatosRespuesta.class), Duration.ZERO, Duration.ofSeconds(5), false);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void primeraPaginaDevuelveElCursorSiguiente() throws Exception {
+        CursorPagina siguiente = new CursorPagina(LocalDateTime.of(2025, 5, 1, 10, 30), 42L);
+        when(jugadaService.findAllTrasCursor(isNull(), eq(10)))
+                .thenReturn(new PaginaCursorDto<>(10, List.of(new JugadaList()), siguiente));
+
+        mockMvc.perform(get("/api/v1/jugadas").param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(10))
+                .andExpect(jsonPath("$.nextCursor").value(PaginationHelper.codificarCursor(siguiente)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void elCursorLlegaDecodificadoYElTamanoAcotado() throws Exception {
+        CursorPagina cursor = new CursorPagina(LocalDateTime.of(2025, 5, 1, 10, 30), 42L);
+        when(jugadaService.findByUsuarioIdTrasCursor(eq(7L), any(), anyInt()))
+                .thenReturn(new PaginaCursorDto<>(PaginationHelper.TAMANO_MAXIMO, List.of(), null));
+
+        mockMvc.perform(get("/api/v1/jugadas/usuario/7")
+                .param("after", PaginationHelper.codificarCursor(cursor))
+                .param("size", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(jugadaService).findByUsuarioIdTrasCursor(7L, cursor, PaginationHelper.TAMANO_MAXIMO);
+    }
+
+    @Test
+    void cursorInvalidoResponde400() throws Exception {
+        mockMvc.perform(get("/api/v1/jugadas/jugador/ana").param("after", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("CURSOR_INVALIDO"));
+
+        verify(jugadaService, never()).findByUsuarioNombreTrasCursor(any(), anyBoolean(), any(), anyInt());
+    }
+
+    @Test
+    void ordenDistintoConCursorResponde400() throws Exception {
+        mockMvc.perform(get("/api/v1/jugadas").param("after", "").param("sort", "id,asc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("ORDEN_CURSOR_NO_SOPORTADO"));
+
+        verify(jugadaService, never()).findAllTrasCursor(any(), anyInt());
+    }
+}
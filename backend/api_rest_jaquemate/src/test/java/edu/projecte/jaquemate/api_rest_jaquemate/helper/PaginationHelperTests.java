@@ -0,0 +1,86 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.helper;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.exceptions.CursorInvalidoException;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.CursorPagina;
+
+/**
+ * Cursor opaco de la paginación por keyset: ida y vuelta, tokens corruptos,
+ * orden admitido y límites del tamaño de página.
+ */
+class PaginationHelperTests {
+
+    @Test
+    void cursorIdaYVuelta() {
+        CursorPagina cursor = new CursorPagina(LocalDateTime.of(2025, 3, 9, 17, 4, 5, 123_456_000), 987_654_321L);
+
+        String token = PaginationHelper.codificarCursor(cursor);
+        CursorPagina leido = PaginationHelper.decodificarCursor(token);
+
+        assertEquals(cursor.getCreatedAt(), leido.getCreatedAt());
+        assertEquals(cursor.getId(), leido.getId());
+    }
+
+    @Test
+    void cursorVacioEmpiezaDesdeElPrincipio() {
+        assertNull(PaginationHelper.codificarCursor(null));
+        assertNull(PaginationHelper.decodificarCursor(null));
+        assertNull(PaginationHelper.decodificarCursor(""));
+        assertNull(PaginationHelper.decodificarCursor("  "));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "no es base64!", "2025-01-01T12:00:00_123" })
+    void tokenQueNoEsBase64SeRechaza(String token) {
+        CursorInvalidoException e = assertThrows(CursorInvalidoException.class,
+                () -> PaginationHelper.decodificarCursor(token));
+        assertEquals("CURSOR_INVALIDO", e.getErrorCode());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "sin separador", "2025-13-01T12:00:00_1", "2025-01-01T12:00:00_abc",
+            "2025-01-01T12:00:00_", "_" })
+    void contenidoCorruptoSeRechaza(String valor) {
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+
+        CursorInvalidoException e = assertThrows(CursorInvalidoException.class,
+                () -> PaginationHelper.decodificarCursor(token));
+        assertEquals("CURSOR_INVALIDO", e.getErrorCode());
+    }
+
+    @Test
+    void cursorSoloAdmiteElOrdenPorDefecto() {
+        assertDoesNotThrow(() -> PaginationHelper.comprobarOrdenCursor(null));
+        assertDoesNotThrow(() -> PaginationHelper.comprobarOrdenCursor(new String[] { "createdAt", "desc" }));
+        assertDoesNotThrow(() -> PaginationHelper.comprobarOrdenCursor(new String[] { "createdAt,DESC" }));
+
+        for (String[] sort : new String[][] { { "createdAt", "asc" }, { "id,desc" }, { "createdAt,desc", "id,asc" },
+                { "createdAt" }, { "createdAt", "hacia_arriba" } }) {
+            CursorInvalidoException e = assertThrows(CursorInvalidoException.class,
+                    () -> PaginationHelper.comprobarOrdenCursor(sort));
+            assertEquals("ORDEN_CURSOR_NO_SOPORTADO", e.getErrorCode());
+        }
+    }
+
+    @Test
+    void tamanoDePaginaAcotado() {
+        assertEquals(1, PaginationHelper.limitarTamano(0));
+        assertEquals(1, PaginationHelper.limitarTamano(-5));
+        assertEquals(25, PaginationHelper.limitarTamano(25));
+        assertEquals(PaginationHelper.TAMANO_MAXIMO, PaginationHelper.limitarTamano(1_000_000));
+        assertEquals(PaginationHelper.TAMANO_MAXIMO,
+                PaginationHelper.createPageable(0, 5_000, new String[] { "createdAt", "desc" }).getPageSize());
+    }
+}
@@ -0,0 +1,112 @@
+package edu.projecte.jaquemate.api_rest_jaquemate.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Jugadas;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.db.Usuario;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.EstadoListado;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.JugadaList;
+import edu.projecte.jaquemate.api_rest_jaquemate.model.dto.PaginaDto;
+import edu.projecte.jaquemate.api_rest_jaquemate.repository.JugadasRepository;
+import edu.projecte.jaquemate.api_rest_jaquemate.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Comprueba el número de sentencias por página para que el N+1 al cargar el
+ * usuario de cada jugada no vuelva a aparecer.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class JugadaListadoConsultasTests {
+
+    private static final int USUARIOS = 3;
+    private static final int JUGADAS_POR_USUARIO = 4;
+    private static final int TAMANO_PAGINA = 5;
+
+    @Autowired
+    private JugadaService jugadaService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JugadasRepository jugadasRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Long primerUsuarioId;
+
+    @BeforeEach
+    void setUp() {
+        for (int u = 0; u < USUARIOS; u++) {
+            Usuario usuario = usuarioRepository.save(Usuario.builder()
+                    .usuario("n1test" + u)
+                    .email("n1test" + u + "@jaquemate.com")
+                    .password("password123")
+                    .build());
+            if (primerUsuarioId == null) {
+                primerUsuarioId = usuario.getId();
+            }
+            for (int j = 0; j < JUGADAS_POR_USUARIO; j++) {
+                jugadasRepository.save(Jugadas.builder()
+                        .usuario(usuario)
+                        .moveUciFrom("e2")
+                        .moveUciTo("e4")
+                        .fen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1")
+                        .build());
+            }
+        }
+
+        // Vaciar el contexto de persistencia para que los usuarios no salgan de caché
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listadoPaginadoEjecutaSoloEstadoYConsulta() {
+        EstadoListado estado = jugadaService.getEstadoListado(null);
+        PaginaDto<JugadaList> pagina = jugadaService.findAll(
+                PageRequest.of(0, TAMANO_PAGINA, Sort.by(Sort.Direction.DESC, "createdAt")), estado.getTotal());
+
+        pagina.getContent().forEach(JugadaList::getUsuarioNombre);
+        assertEquals(TAMANO_PAGINA, pagina.getContent().size());
+        assertEquals(estado.getTotal(), pagina.getTotalElements());
+        // El total del ETag sirve a la página: no hay un segundo COUNT
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listadoPorUsuarioEjecutaSoloEstadoYConsulta() {
+        EstadoListado estado = jugadaService.getEstadoListado(primerUsuarioId);
+        PaginaDto<JugadaList> pagina = jugadaService.findByUsuarioId(primerUsuarioId,
+                PageRequest.of(0, JUGADAS_POR_USUARIO - 1, Sort.by(Sort.Direction.DESC, "createdAt")),
+                estado.getTotal());
+
+        assertEquals(JUGADAS_POR_USUARIO - 1, pagina.getContent().size());
+        assertEquals(JUGADAS_POR_USUARIO, pagina.getTotalElements());
+        assertEquals(2, pagina.getTotalPages());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listadoPorCursorEjecutaUnaSolaConsulta() {
+        jugadaService.findAllTrasCursor(null, TAMANO_PAGINA);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
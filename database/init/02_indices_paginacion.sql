@@ -0,0 +1,7 @@
+-- Índices para la paginación por cursor (keyset) sobre (created_at, id)
+
+CREATE INDEX IF NOT EXISTS idx_jugadas_created_at_id
+    ON jugadas (created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_jugadas_usuario_created_at_id
+    ON jugadas (usuario_id, created_at DESC, id DESC);
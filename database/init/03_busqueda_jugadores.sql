@@ -0,0 +1,6 @@
+-- Búsqueda de jugadores por subcadena (LIKE/ILIKE '%texto%') servida por índice trigram
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_usuarios_usuario_trgm
+    ON usuarios USING gin (usuario gin_trgm_ops);
@@ -0,0 +1,15 @@
+-- Hash Zobrist de la posición para buscar jugadas por posición en O(log n)
+
+ALTER TABLE jugadas ADD COLUMN IF NOT EXISTS posicion_hash BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_jugadas_posicion_hash
+    ON jugadas (posicion_hash);
+
+-- Hash de la posición anterior a la jugada. El FEN guardado es el resultante
+-- cuando la jugada viene del tablero o de una importación; el explorador de
+-- aperturas cuenta los movimientos desde la posición en que se jugaron.
+ALTER TABLE jugadas ADD COLUMN IF NOT EXISTS posicion_previa_hash BIGINT;
+
+-- /api/v1/posiciones/{fen} lista las jugadas hechas desde la posición
+CREATE INDEX IF NOT EXISTS idx_jugadas_posicion_previa_hash
+    ON jugadas (posicion_previa_hash);
@@ -0,0 +1,21 @@
+-- Explorador de aperturas: veces que se ha jugado cada movimiento desde cada posición
+
+CREATE TABLE IF NOT EXISTS explorador_movimientos (
+    posicion_hash BIGINT NOT NULL,
+    move_uci_from TEXT NOT NULL,
+    move_uci_to TEXT NOT NULL,
+    veces BIGINT NOT NULL,
+    PRIMARY KEY (posicion_hash, move_uci_from, move_uci_to)
+);
+
+-- La clave es la posición desde la que se juega (posicion_previa_hash de la
+-- jugada), no la resultante. Se reconstruye entera desde esa columna, también
+-- si la tabla ya existía contada por el FEN posterior; las jugadas antiguas
+-- sin posición previa se suman al rellenarla (jaquemate.posiciones.backfill).
+TRUNCATE explorador_movimientos;
+
+INSERT INTO explorador_movimientos (posicion_hash, move_uci_from, move_uci_to, veces)
+SELECT posicion_previa_hash, move_uci_from, move_uci_to, COUNT(*)
+FROM jugadas
+WHERE posicion_previa_hash IS NOT NULL AND move_uci_from IS NOT NULL AND move_uci_to IS NOT NULL
+GROUP BY posicion_previa_hash, move_uci_from, move_uci_to;
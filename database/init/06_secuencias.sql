@@ -0,0 +1,13 @@
+-- Ids por secuencia con reserva en bloques (pooled-lo en Hibernate): cada
+-- nextval reserva 50 ids, así los INSERT no necesitan leer la clave generada
+-- uno a uno y pueden enviarse en lotes JDBC.
+-- El INCREMENT BY debe coincidir con allocationSize de las entidades.
+
+ALTER TABLE usuarios ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE usuarios_id_seq AS BIGINT INCREMENT BY 50;
+
+-- Con saltos de 50 el rango de INTEGER se agotaría 50 veces antes
+ALTER TABLE jugadas
+    ALTER COLUMN id TYPE BIGINT,
+    ALTER COLUMN usuario_id TYPE BIGINT;
+ALTER SEQUENCE jugadas_id_seq AS BIGINT INCREMENT BY 50;
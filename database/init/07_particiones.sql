@@ -0,0 +1,102 @@
+-- Particionado mensual de jugadas por created_at. Los listados por cursor y las
+-- exportaciones por fechas solo leen las particiones de su rango, los meses
+-- recientes quedan en tablas pequeñas y purgar historial es DETACH/DROP de una
+-- partición en lugar de un DELETE masivo.
+-- La aplicación crea las particiones futuras y aplica la retención
+-- (jaquemate.particiones.* en application.properties).
+
+-- Crea la partición del mes de la fecha indicada si no existe. Las filas de ese
+-- mes que hubieran caído en la partición por defecto se mueven a la nueva antes
+-- de adjuntarla; con ellas dentro ATTACH PARTITION fallaría.
+CREATE OR REPLACE FUNCTION crear_particion_jugadas(mes DATE) RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    inicio TIMESTAMP := date_trunc('month', mes);
+    fin TIMESTAMP := date_trunc('month', mes) + INTERVAL '1 month';
+    nombre TEXT := 'jugadas_p' || to_char(mes, 'YYYYMM');
+BEGIN
+    -- Varias instancias de la API pueden ejecutar el mantenimiento a la vez
+    PERFORM pg_advisory_xact_lock(hashtext('crear_particion_jugadas'));
+    IF to_regclass(nombre) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE jugadas INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', nombre);
+    EXECUTE format('WITH movidas AS (DELETE FROM jugadas_fuera_rango'
+            || ' WHERE created_at >= %L AND created_at < %L RETURNING *)'
+            || ' INSERT INTO %I SELECT * FROM movidas', inicio, fin, nombre);
+    -- ATTACH crea en la partición los índices de la tabla padre
+    EXECUTE format('ALTER TABLE jugadas ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+            nombre, inicio, fin);
+    RETURN nombre;
+END;
+$$;
+
+-- Conversión de la tabla existente: el particionado no se puede activar sobre
+-- una tabla con datos, se crea la tabla particionada y se copian las filas.
+DO $$
+DECLARE
+    mes DATE;
+    ultimo DATE := (date_trunc('month', now()) + INTERVAL '3 months')::DATE;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'jugadas'::regclass) THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE jugadas RENAME TO jugadas_sin_particionar;
+    -- El índice de la clave primaria ocuparía el nombre jugadas_pkey de la tabla nueva
+    ALTER TABLE jugadas_sin_particionar RENAME CONSTRAINT jugadas_pkey TO jugadas_sin_particionar_pkey;
+    -- La secuencia del SERIAL pertenece a la tabla antigua y se borraría con ella
+    ALTER SEQUENCE jugadas_id_seq OWNED BY NONE;
+
+    -- La clave primaria de una tabla particionada debe incluir la clave de partición;
+    -- la unicidad del id la sigue garantizando la secuencia
+    CREATE TABLE jugadas (
+        id BIGINT NOT NULL DEFAULT nextval('jugadas_id_seq'),
+        usuario_id BIGINT REFERENCES usuarios(id),
+        move_san TEXT,
+        move_uci_from TEXT,
+        move_uci_to TEXT,
+        fen TEXT,
+        pgn TEXT,
+        created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+        posicion_hash BIGINT,
+        posicion_previa_hash BIGINT,
+        PRIMARY KEY (id, created_at)
+    ) PARTITION BY RANGE (created_at);
+    ALTER SEQUENCE jugadas_id_seq OWNED BY jugadas.id;
+
+    -- Red de seguridad: sin ella un INSERT fuera de las particiones creadas fallaría
+    CREATE TABLE jugadas_fuera_rango PARTITION OF jugadas DEFAULT;
+
+    mes := COALESCE((SELECT date_trunc('month', min(created_at))::DATE FROM jugadas_sin_particionar),
+            date_trunc('month', now())::DATE);
+    WHILE mes <= ultimo LOOP
+        PERFORM crear_particion_jugadas(mes);
+        mes := (mes + INTERVAL '1 month')::DATE;
+    END LOOP;
+
+    INSERT INTO jugadas (id, usuario_id, move_san, move_uci_from, move_uci_to, fen, pgn, created_at, posicion_hash,
+            posicion_previa_hash)
+    SELECT id, usuario_id, move_san, move_uci_from, move_uci_to, fen, pgn, COALESCE(created_at, now()), posicion_hash,
+            posicion_previa_hash
+    FROM jugadas_sin_particionar;
+
+    DROP TABLE jugadas_sin_particionar;
+END;
+$$;
+
+-- Índices de la tabla padre: se crean en todas las particiones, también en las futuras
+CREATE INDEX IF NOT EXISTS idx_jugadas_created_at_id
+    ON jugadas (created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_jugadas_usuario_created_at_id
+    ON jugadas (usuario_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_jugadas_posicion_hash
+    ON jugadas (posicion_hash);
+
+CREATE INDEX IF NOT EXISTS idx_jugadas_posicion_previa_hash
+    ON jugadas (posicion_previa_hash);
+
+ANALYZE jugadas;
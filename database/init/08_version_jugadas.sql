@@ -0,0 +1,22 @@
+-- Versión de cada jugada (bloqueo optimista de Hibernate). Con el id forma el
+-- ETag de GET /api/v1/jugadas/{id} y su suma entra en el de los listados, así
+-- una edición invalida las copias en caché.
+-- Con un DEFAULT constante PostgreSQL añade la columna sin reescribir las particiones.
+
+ALTER TABLE jugadas ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Los listados muestran el nombre del jugador, así que su ETag suma también la
+-- versión de los usuarios: cambiar el nombre en el perfil invalida las copias.
+ALTER TABLE usuarios ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- El resumen de los listados (COUNT, MAX(created_at) y SUM(version) de su
+-- alcance) se resuelve con un recorrido solo de índice si los índices de
+-- paginación llevan también la versión. Sin ella leería cada fila de la tabla
+-- en cada petición, también en las que acaban en 304.
+DROP INDEX IF EXISTS idx_jugadas_created_at_id;
+CREATE INDEX idx_jugadas_created_at_id
+    ON jugadas (created_at DESC, id DESC) INCLUDE (version);
+
+DROP INDEX IF EXISTS idx_jugadas_usuario_created_at_id;
+CREATE INDEX idx_jugadas_usuario_created_at_id
+    ON jugadas (usuario_id, created_at DESC, id DESC) INCLUDE (version);
@@ -148,6 +148,8 @@ class AppAjedrez extends HTMLElement {
 
   async manejarIntentoMovimiento(detalle) {
     const { from, to, promotion } = detalle;
+    // Posición antes de mover: el explorador cuenta la jugada desde ella
+    const fenPrevio = this.chess.fen();
 
     let movimiento;
     try {
@@ -168,6 +170,7 @@ class AppAjedrez extends HTMLElement {
       const jugadaData = {
         usuarioId: obtenerUsuarioId(), // usuario logueadp
         fen: this.chess.fen(),
+        fenPrevio,
         moveUciFrom: from,
         moveUciTo: to,
         moveSan: movimiento.san,